@@ -0,0 +1,27 @@
+package com.example.DevOpsProj.Mapper;
+
+import com.example.DevOpsProj.dto.requestDto.AccessRequestDTO;
+import com.example.DevOpsProj.model.AccessRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AccessRequestMapper {
+
+    private final UserMapper userMapper;
+    private final ProjectMapper projectMapper;
+
+    public AccessRequestDTO toDTO(AccessRequest accessRequest) {
+        if (accessRequest == null) {
+            return null;
+        }
+        return new AccessRequestDTO(
+                accessRequest.getAccessRequestId(),
+                accessRequest.getPmName(),
+                userMapper.toDTO(accessRequest.getUser()),
+                projectMapper.toDTO(accessRequest.getProject()),
+                accessRequest.getRequestDescription(),
+                accessRequest.isAllowed());
+    }
+}
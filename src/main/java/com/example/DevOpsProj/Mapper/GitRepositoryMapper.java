@@ -0,0 +1,30 @@
+package com.example.DevOpsProj.Mapper;
+
+import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
+import com.example.DevOpsProj.model.GitRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class GitRepositoryMapper {
+
+    public GitRepositoryDTO toDTO(GitRepository gitRepository) {
+        if (gitRepository == null) {
+            return null;
+        }
+        return new GitRepositoryDTO(gitRepository.getRepoId(), gitRepository.getName(), gitRepository.getDescription());
+    }
+
+    public List<GitRepositoryDTO> toDTOs(List<GitRepository> gitRepositories) {
+        if (gitRepositories == null) {
+            return null;
+        }
+        List<GitRepositoryDTO> gitRepositoryDTOs = new ArrayList<>(gitRepositories.size());
+        for (GitRepository gitRepository : gitRepositories) {
+            gitRepositoryDTOs.add(toDTO(gitRepository));
+        }
+        return gitRepositoryDTOs;
+    }
+}
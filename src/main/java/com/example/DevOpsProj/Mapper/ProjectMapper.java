@@ -0,0 +1,28 @@
+package com.example.DevOpsProj.Mapper;
+
+import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
+import com.example.DevOpsProj.model.Project;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProjectMapper {
+
+    //scalar fields only, so mapping never triggers a lazy load of users, repositories or figma
+    public ProjectDTO toDTO(Project project) {
+        if (project == null) {
+            return null;
+        }
+        return new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), project.getLastUpdated());
+    }
+
+    public Project toEntity(ProjectDTO projectDTO) {
+        if (projectDTO == null) {
+            return null;
+        }
+        Project project = new Project();
+        project.setProjectId(projectDTO.getProjectId());
+        project.setProjectName(projectDTO.getProjectName());
+        project.setProjectDescription(projectDTO.getProjectDescription());
+        return project;
+    }
+}
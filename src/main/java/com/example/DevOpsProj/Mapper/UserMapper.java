@@ -0,0 +1,47 @@
+package com.example.DevOpsProj.Mapper;
+
+import com.example.DevOpsProj.dto.responseDto.UserDTO;
+import com.example.DevOpsProj.model.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole());
+    }
+
+    public User toEntity(UserDTO userDTO) {
+        if (userDTO == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(userDTO.getId());
+        user.setName(userDTO.getName());
+        user.setEmail(userDTO.getEmail());
+        user.setEnumRole(userDTO.getEnumRole());
+        return user;
+    }
+
+    //detached copy of the scalar fields, associations are left unset
+    public User copy(User source) {
+        if (source == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(source.getId());
+        user.setName(source.getName());
+        user.setEmail(source.getEmail());
+        user.setPhone(source.getPhone());
+        user.setAddress(source.getAddress());
+        user.setPassword(source.getPassword());
+        user.setEnumRole(source.getEnumRole());
+        if (source.getDeleted() != null) {
+            user.setDeleted(source.getDeleted());
+        }
+        return user;
+    }
+}
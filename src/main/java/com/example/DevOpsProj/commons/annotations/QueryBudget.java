@@ -0,0 +1,14 @@
+package com.example.DevOpsProj.commons.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//most jdbc statements one request to the handler (or every handler of the controller) should need,
+//the method annotation wins over the class one. Going over it is logged, the request itself is not failed
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,18 @@
+package com.example.DevOpsProj.commons.annotations;
+
+import com.example.DevOpsProj.config.DataSourceConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//read-only transaction that may be served by the replica, so the data can be up to
+//app.datasource.replica.max-lag-seconds old. Only for reads whose result is returned as is, never for
+//reads that feed a write. Joins an already running transaction (and its connection) when there is one
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Transactional(transactionManager = DataSourceConfig.REPLICA_TRANSACTION_MANAGER, readOnly = true)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,12 @@
+package com.example.DevOpsProj.commons.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//handlers (or whole controllers) marked with this need a valid AccessToken header
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresAccessToken {
+}
@@ -0,0 +1,49 @@
+package com.example.DevOpsProj.config;
+
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
+import com.example.DevOpsProj.service.JwtService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+//validates the AccessToken header once per request, before any controller or service code runs
+@Component
+@RequiredArgsConstructor
+public class AccessTokenInterceptor implements HandlerInterceptor {
+
+    public static final String ACCESS_TOKEN_HEADER = "AccessToken";
+    public static final String ACCESS_TOKEN_ATTRIBUTE = AccessTokenInterceptor.class.getName() + ".accessToken";
+
+    private final JwtService jwtService;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !requiresAccessToken(handlerMethod)) {
+            return true;
+        }
+        String accessToken = request.getHeader(ACCESS_TOKEN_HEADER);
+        if (accessToken == null || accessToken.isBlank() || !jwtService.isTokenTrue(accessToken)) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Invalid Token");
+            return false;
+        }
+        request.setAttribute(ACCESS_TOKEN_ATTRIBUTE, accessToken);
+        return true;
+    }
+
+    private boolean requiresAccessToken(HandlerMethod handlerMethod) {
+        return handlerMethod.hasMethodAnnotation(RequiresAccessToken.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), RequiresAccessToken.class);
+    }
+}
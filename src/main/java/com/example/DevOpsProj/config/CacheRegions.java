@@ -0,0 +1,33 @@
+package com.example.DevOpsProj.config;
+
+import java.util.List;
+
+//second-level cache region names, sizes and ttls for each one live in src/main/resources/application.conf
+public final class CacheRegions {
+
+    public static final String USER = "user";
+    public static final String USER_PROJECTS = "user-projects";
+    public static final String PROJECT = "project";
+    public static final String PROJECT_USERS = "project-users";
+    public static final String PROJECT_REPOSITORIES = "project-repositories";
+    public static final String GIT_REPOSITORY = "git-repository";
+    public static final String GIT_REPOSITORY_USERNAMES = "git-repository-usernames";
+    public static final String FIGMA = "figma";
+    public static final String USER_NAMES = "user-names";
+
+    //query results, dropped by hibernate whenever a table they read from is written
+    public static final String USER_QUERIES = "user-queries";
+    public static final String PROJECT_QUERIES = "project-queries";
+
+    //collection role of the inverse side of project_user, hibernate does not refresh it when Project.users changes
+    public static final String USER_PROJECTS_ROLE = "com.example.DevOpsProj.model.User.projects";
+    public static final String PROJECT_USERS_ROLE = "com.example.DevOpsProj.model.Project.users";
+
+    public static final List<String> ALL = List.of(
+            USER, USER_PROJECTS, PROJECT, PROJECT_USERS, PROJECT_REPOSITORIES,
+            GIT_REPOSITORY, GIT_REPOSITORY_USERNAMES, FIGMA, USER_NAMES,
+            USER_QUERIES, PROJECT_QUERIES);
+
+    private CacheRegions() {
+    }
+}
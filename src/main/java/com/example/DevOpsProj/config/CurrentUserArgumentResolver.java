@@ -0,0 +1,51 @@
+package com.example.DevOpsProj.config;
+
+import com.example.DevOpsProj.commons.annotations.CurrentUser;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+//resolves @CurrentUser User parameters from the token the interceptor already validated,
+//the user is loaded at most once per request and kept in request scope
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String CURRENT_USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".currentUser";
+
+    private final JwtService jwtService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User user) {
+            return user;
+        }
+        Object accessToken = webRequest.getAttribute(AccessTokenInterceptor.ACCESS_TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(accessToken instanceof String token)) {
+            //handler is not behind @RequiresAccessToken
+            return null;
+        }
+        User user = jwtService.getUserByToken(token);
+        if (user != null) {
+            webRequest.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.DevOpsProj.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+
+//primary pool from spring.datasource.*, optional replica pool from app.datasource.replica.*, and the routing
+//datasource the application actually uses. Both pools are named so hikaricp.* metrics come out per pool
+@Configuration
+public class DataSourceConfig {
+
+    public static final String REPLICA_TRANSACTION_MANAGER = "replicaTransactionManager";
+
+    //migrations run straight on the primary pool, not through the routing and statement counting proxies
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    //only created when a replica url is configured, binds straight onto the pool (jdbc-url, username, password, ...)
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                                        MeterRegistry meterRegistry) {
+        return new ReadWriteRoutingDataSource(primary, replica.getIfAvailable(), meterRegistry);
+    }
+
+    //the physical connection is only picked on the first statement, once the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    //declared here because a second transaction manager makes spring boot back off from its own
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    //only used through @ReplicaRead
+    @Bean(REPLICA_TRANSACTION_MANAGER)
+    public ReplicaReadTransactionManager replicaTransactionManager(EntityManagerFactory entityManagerFactory,
+                                                                   ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReplicaReadTransactionManager transactionManager = new ReplicaReadTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+}
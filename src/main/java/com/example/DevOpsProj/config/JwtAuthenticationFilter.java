@@ -1,18 +1,20 @@
 package com.example.DevOpsProj.config;
 
+import com.example.DevOpsProj.dto.projection.TokenAuthentication;
+import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.TokenRepository;
 import com.example.DevOpsProj.service.JwtService;
+import com.example.DevOpsProj.service.RevocationListService;
+import com.example.DevOpsProj.service.VerifiedClaims;
+import com.example.DevOpsProj.utils.TokenHashUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.annotation.Bean;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,8 +25,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
     private final TokenRepository tokenRepository;
+    private final RevocationListService revocationListService;
 
     @Override
     protected void doFilterInternal(
@@ -34,7 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedClaims claims;
         //HERE WE ARE CHECKING THAT OUR TOKEN EXCIT OR NOT
         if (authHeader == null ||!authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -42,19 +44,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         //HERE WE ARE EXTRACTING THE JWT TOKEN AND USER NAME IN THE NEXT LINE
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        //NOW WE EXTRACTING THE USER FRO TH DATABASE FOR THE VERIFICATION
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            var isTokenValid = tokenRepository.findByToken(jwt)
-                    .map(t -> !t.isExpired() && !t.isRevoked())
-                    .orElse(false);
-            if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+        claims = jwtService.verify(jwt);
+        //NOW WE LOAD THE USER AND THE TOKEN STATE TOGETHER IN ONE QUERY FOR THE VERIFICATION
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            final String tokenHash = TokenHashUtils.sha256(jwt);
+            UsernamePasswordAuthenticationToken authToken = null;
+            //STATELESS MODE, THE SIGNATURE AND THE REVOCATION LIST ARE ENOUGH, NO DATABASE CALL. THE PRINCIPAL IS
+            //BUILT FROM THE CLAIMS SO IT IS A USER IN BOTH MODES, OLDER TOKENS WITHOUT THE ID CLAIM USE THE DATABASE
+            User statelessUser = revocationListService.isStateless() && revocationListService.isReady()
+                    ? jwtService.principalOf(claims) : null;
+            if (statelessUser != null) {
+                if (!revocationListService.isRevoked(tokenHash)) {
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            statelessUser,
+                            null,
+                            statelessUser.getAuthorities()
+                    );
+                }
+            } else {
+                TokenAuthentication tokenAuthentication = tokenRepository.findAuthenticationByTokenHash(tokenHash)
+                        .orElse(null);
+                if (tokenAuthentication != null && tokenAuthentication.isActive()
+                        && jwtService.isTokenValid(claims, tokenAuthentication.getUser())) {
+                    User user = tokenAuthentication.getUser();
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            user.getAuthorities()
+                    );
+                }
+            }
+            if (authToken != null) {
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
@@ -0,0 +1,105 @@
+package com.example.DevOpsProj.config;
+
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.utils.StatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//counts the statements of a whole request (security filters and view rendering included) and compares
+//them with the handler's @QueryBudget, or sql.budget.default when the handler has none
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultBudget;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${sql.budget.enabled:true}") boolean enabled,
+                             @Value("${sql.budget.default:20}") int defaultBudget) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        StatementCounter.Counts counts = StatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCounter.stop(counts);
+            report(request, counts);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementCounter.Counts counts) {
+        //both attributes are left on the request by the dispatcher once it picked a handler
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod handlerMethod) || pattern == null) {
+            return;
+        }
+        String method = request.getMethod();
+        String uri = pattern.toString();
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .description("Jdbc statements run by one request")
+                .register(meterRegistry)
+                .record(counts.getStatements());
+        Timer.builder("http.server.requests.db.time")
+                .tag("method", method)
+                .tag("uri", uri)
+                .description("Time one request spent executing jdbc statements")
+                .register(meterRegistry)
+                .record(counts.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        int budget = budgetFor(handlerMethod);
+        if (counts.getStatements() > budget) {
+            Counter.builder("http.server.requests.db.budget.exceeded")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} statements ({} ms in the database), budget is {}",
+                    method, uri, counts.getStatements(), counts.getElapsedMillis(), budget);
+        }
+    }
+
+    private int budgetFor(HandlerMethod handlerMethod) {
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+}
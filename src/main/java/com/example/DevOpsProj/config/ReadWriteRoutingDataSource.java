@@ -0,0 +1,74 @@
+package com.example.DevOpsProj.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+//hands out replica connections to @ReplicaRead transactions while the replica is healthy, primary connections to
+//everything else, including the read-only transactions spring data opens around bare repository calls (those
+//often feed a write). Has to sit behind a LazyConnectionDataSourceProxy, the transaction manager asks for a
+//connection before the transaction is set up
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final boolean hasReplica;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    //set by ReplicaLagMonitor, false sends replica reads back to the primary. Starts false, the replica is only
+    //used once a lag check has found it healthy
+    private volatile boolean replicaAvailable;
+
+    //replica may be null, then every connection comes from the primary
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        this.hasReplica = replica != null;
+        setTargetDataSources(Map.of(
+                Target.PRIMARY, primary,
+                Target.REPLICA, hasReplica ? replica : primary));
+        setDefaultTargetDataSource(primary);
+        this.writes = routed(meterRegistry, "primary", "false");
+        this.primaryReads = routed(meterRegistry, "primary", "true");
+        this.replicaReads = routed(meterRegistry, "replica", "true");
+    }
+
+    public boolean hasReplica() {
+        return hasReplica;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = hasReplica && replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly || !ReplicaReadTransactionManager.isReplicaRead()) {
+            (readOnly ? primaryReads : writes).increment();
+            return Target.PRIMARY;
+        }
+        if (replicaAvailable) {
+            replicaReads.increment();
+            return Target.REPLICA;
+        }
+        primaryReads.increment();
+        return Target.PRIMARY;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String readOnly) {
+        return Counter.builder("datasource.routing.connections")
+                .tag("target", target)
+                .tag("read.only", readOnly)
+                .description("Connections handed out by the read/write routing datasource")
+                .register(meterRegistry);
+    }
+}
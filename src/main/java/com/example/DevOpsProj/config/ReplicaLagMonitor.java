@@ -0,0 +1,87 @@
+package com.example.DevOpsProj.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+//polls the replica's replication lag and takes it out of rotation while it is too far behind, unreachable or not
+//replicating. Reads go back to the replica on the first check that finds it healthy again
+@Component
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final long maxLagSeconds;
+
+    //-1 while the lag is unknown
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource,
+                             @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                             @Value("${app.datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+                             @Value("${app.datasource.replica.max-lag-seconds:30}") long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        DataSource replicaDataSource = replica.getIfAvailable();
+        this.replicaJdbcTemplate = replicaDataSource != null ? new JdbcTemplate(replicaDataSource) : null;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .description("Replication lag seen by the last check, -1 when unknown")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", routingDataSource, ds -> ds.isReplicaAvailable() ? 1 : 0)
+                .description("1 while read-only transactions are sent to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        if (replicaJdbcTemplate == null) {
+            return;
+        }
+        boolean healthy;
+        try {
+            if (lagQuery.isBlank()) {
+                //no replication to ask about (e.g. two local embedded databases), only check it answers
+                replicaJdbcTemplate.execute("SELECT 1");
+                lagSeconds = 0;
+                healthy = true;
+            } else {
+                List<Long> lag = replicaJdbcTemplate.query(lagQuery, (rs, rowNum) -> {
+                    long seconds = rs.getLong(lagColumn);
+                    return rs.wasNull() ? null : seconds;
+                });
+                //no row means this is not a replica, a null lag means replication is stopped
+                Long seconds = lag.isEmpty() ? null : lag.get(0);
+                lagSeconds = seconds != null ? seconds : -1;
+                healthy = seconds != null && seconds <= maxLagSeconds;
+            }
+        } catch (Exception e) {
+            log.debug("Replica lag check failed", e);
+            lagSeconds = -1;
+            healthy = false;
+        }
+        if (healthy != routingDataSource.isReplicaAvailable()) {
+            log.warn(healthy ? "Replica is back, lag {}s, sending reads to it"
+                    : "Replica lag is {}s (max {}s) or unknown, sending reads to the primary", lagSeconds, maxLagSeconds);
+        }
+        routingDataSource.setReplicaAvailable(healthy);
+    }
+}
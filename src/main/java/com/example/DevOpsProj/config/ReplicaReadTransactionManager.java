@@ -0,0 +1,38 @@
+package com.example.DevOpsProj.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+//transaction manager behind @ReplicaRead. It only marks the transactions it begins itself, so a
+//@ReplicaRead method called from inside another transaction keeps that transaction's primary connection
+public class ReplicaReadTransactionManager extends JpaTransactionManager {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    public ReplicaReadTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    //true inside a transaction begun through @ReplicaRead
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        REPLICA_READ.set(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            REPLICA_READ.remove();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        REPLICA_READ.remove();
+        super.doCleanupAfterCompletion(transaction);
+    }
+}
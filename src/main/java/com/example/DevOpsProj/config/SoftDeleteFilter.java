@@ -0,0 +1,51 @@
+package com.example.DevOpsProj.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+//hibernate filter that hides soft-deleted users and projects from entity queries. It is switched on for the
+//request-scoped session by SoftDeleteFilterInterceptor, scheduled jobs run without it. Loads by id are never
+//filtered, so existsById/findById still see deleted rows
+@Component
+public class SoftDeleteFilter {
+
+    public static final String NAME = "activeOnly";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SoftDeleteFilter(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void enable() {
+        Session session = currentSession();
+        if (session != null) {
+            session.enableFilter(NAME);
+        }
+    }
+
+    //for the admin reads that are about deleted rows (inactive counts, listings filtered on deleted)
+    public <T> T includingDeleted(Supplier<T> work) {
+        Session session = currentSession();
+        if (session == null || session.getEnabledFilter(NAME) == null) {
+            return work.get();
+        }
+        session.disableFilter(NAME);
+        try {
+            return work.get();
+        } finally {
+            session.enableFilter(NAME);
+        }
+    }
+
+    //null when no session is bound to the thread (open-in-view off, scheduled jobs)
+    private Session currentSession() {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        return entityManager != null ? entityManager.unwrap(Session.class) : null;
+    }
+}
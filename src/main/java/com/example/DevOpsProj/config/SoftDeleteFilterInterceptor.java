@@ -0,0 +1,25 @@
+package com.example.DevOpsProj.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+//turns the soft-delete filter on for the session open-in-view bound to this request, so every service and
+//repository call made by the handler only sees live users and projects
+@Component
+@RequiredArgsConstructor
+public class SoftDeleteFilterInterceptor implements HandlerInterceptor {
+
+    private final SoftDeleteFilter softDeleteFilter;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        softDeleteFilter.enable();
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.DevOpsProj.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AccessTokenInterceptor accessTokenInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final SoftDeleteFilterInterceptor softDeleteFilterInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(accessTokenInterceptor);
+        //after the open-in-view interceptor (order 0), which binds the session the filter is enabled on
+        registry.addInterceptor(softDeleteFilterInterceptor).order(1);
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.dto.requestDto.AccessRequestDTO;
 import com.example.DevOpsProj.dto.responseDto.AccessResponseDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.model.AccessRequest;
 import com.example.DevOpsProj.service.AccessRequestService;
-import com.example.DevOpsProj.service.JwtService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
@@ -14,51 +16,45 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@QueryBudget(6)
+@RequiresAccessToken
 @RequestMapping("/api/request")
 public class AccessRequestController {
 
     @Autowired
     private AccessRequestService accessRequestService;
-    @Autowired
-    private JwtService jwtService;
 
     @PostMapping("/")
-    public ResponseEntity<Object> createAccessRequest(@RequestBody AccessRequestDTO accessRequestDTO, @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            AccessRequestDTO accessRequestDTO1 = accessRequestService.createRequest(accessRequestDTO);
-            return ResponseEntity.ok("Request made successfully");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> createAccessRequest(@RequestBody AccessRequestDTO accessRequestDTO){
+        AccessRequestDTO accessRequestDTO1 = accessRequestService.createRequest(accessRequestDTO);
+        return ResponseEntity.ok("Request made successfully");
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<Object> getAllActiveRequests(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<AccessRequestDTO>  accessRequestDTOList= accessRequestService.getAllRequests();
-            return ResponseEntity.ok(accessRequestDTOList);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    @QueryBudget(3)
+    @GetMapping("/all") //whole list, or a keyset page when after/limit is given
+    public ResponseEntity<Object> getAllActiveRequests(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count){
+        if (after != null || limit != null) {
+            if (limit != null && limit < 1) {
+                return ResponseEntity.badRequest().body("Invalid limit");
+            }
+            return ResponseEntity.ok(accessRequestService.getActiveRequestsPage(after != null ? after : 0, KeysetPage.clampLimit(limit), count));
         }
+        List<AccessRequestDTO>  accessRequestDTOList= accessRequestService.getAllRequests();
+        return ResponseEntity.ok(accessRequestDTOList);
     }
 
     @PutMapping("/update/{accessRequestId}")
     public ResponseEntity<Object> updateAccessRequest(
             @PathVariable("accessRequestId") Long requestId,
-            @RequestBody AccessRequestDTO accessRequestDTO,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<AccessResponseDTO> accessResponseDTOList = accessRequestService.getUpdatedRequests(requestId, accessRequestDTO);
-            if (accessResponseDTOList.isEmpty()){
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-            }
-            else return ResponseEntity.ok(accessResponseDTOList);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            @RequestBody AccessRequestDTO accessRequestDTO){
+        List<AccessResponseDTO> accessResponseDTOList = accessRequestService.getUpdatedRequests(requestId, accessRequestDTO);
+        if (accessResponseDTOList.isEmpty()){
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
+        else return ResponseEntity.ok(accessResponseDTOList);
     }
 
 }
@@ -1,11 +1,14 @@
 package com.example.DevOpsProj.controller;
 
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.config.AccessTokenInterceptor;
 import com.example.DevOpsProj.dto.responseDto.UserDTO;
 import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.service.GoogleIdTokenVerifier;
 import com.example.DevOpsProj.service.JwtService;
 import com.example.DevOpsProj.service.UserService;
-import com.example.DevOpsProj.utils.JwtUtils;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 
 @RestController
+@QueryBudget(8)
 @RequestMapping("/auth")
 public class AuthController {
     @Autowired
@@ -23,21 +27,28 @@ public class AuthController {
     private UserRepository userRepository;
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private GoogleIdTokenVerifier googleIdTokenVerifier;
 
     @GetMapping("/api/get-email")
-    public ResponseEntity<Object> getEmailFromToken(@RequestHeader("emailToVerify") String emailToVerify) throws IOException {
-        return ResponseEntity.ok(userService.loginVerification(emailToVerify));
+    public ResponseEntity<Object> getEmailFromToken(
+            @RequestHeader("emailToVerify") String emailToVerify,
+            @RequestHeader(name = AccessTokenInterceptor.ACCESS_TOKEN_HEADER, required = false) String currentToken) throws IOException {
+        return ResponseEntity.ok(userService.loginVerification(emailToVerify, currentToken));
     }
 
 
     @GetMapping("/api/getEmail")
     public ResponseEntity<Object> getEmailFromToken(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(name = AccessTokenInterceptor.ACCESS_TOKEN_HEADER, required = false) String currentToken,
             HttpServletResponse response) throws IOException{
         try {
-            String jwt = authHeader.replace("Bearer", "");
-            String emailToVerify = JwtUtils.getEmailFromJwt(jwt);
-            return new ResponseEntity<>(userService.loginVerification(emailToVerify), HttpStatus.OK);
+            String jwt = authHeader.replace("Bearer", "").trim();
+            String emailToVerify = googleIdTokenVerifier.verifyAndGetEmail(jwt);
+            return new ResponseEntity<>(userService.loginVerification(emailToVerify, currentToken), HttpStatus.OK);
+        }catch (JWTVerificationException e){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Google token");
         }catch (IllegalArgumentException e){
             return ResponseEntity.notFound().build();
         }
@@ -1,11 +1,8 @@
 package com.example.DevOpsProj.controller;
 
-import com.example.DevOpsProj.service.JwtService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,22 +10,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/demo-controller")
 public class DemoController {
 
-    @Autowired
-    private JwtService jwtService;
 
     @GetMapping
     public ResponseEntity<String> sayHello(){
         return ResponseEntity.ok("Hello");
     }
 
+    @RequiresAccessToken
     @GetMapping("/")
-    public ResponseEntity<String> sayHello(@RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            return ResponseEntity.ok("Hello");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<String> sayHelloWithToken() {
+        return ResponseEntity.ok("Hello");
     }
 
 
@@ -1,11 +1,13 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.dto.responseDto.FigmaDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.model.Figma;
 import com.example.DevOpsProj.repository.FigmaRepository;
 import com.example.DevOpsProj.repository.UserRepository;
 import com.example.DevOpsProj.service.FigmaService;
-import com.example.DevOpsProj.service.JwtService;
 import com.example.DevOpsProj.service.ProjectService;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -22,6 +24,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
+@QueryBudget(6)
+@RequiresAccessToken
 @RequestMapping("/api/figmas")
 public class FigmaController {
     @Autowired
@@ -32,91 +36,76 @@ public class FigmaController {
     private ProjectService projectService;
     @Autowired
     private UserRepository userRepository;
-    @Autowired
-    private JwtService jwtService;
 
     @PostMapping("/create")
-    public ResponseEntity<String> createFigma(@RequestBody FigmaDTO figmaDTO,
-                                              @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                // Create a new Figma entity using the provided projectName and figmaURL
-                Figma figma = figmaService.createFigma(figmaDTO);
+    public ResponseEntity<String> createFigma(@RequestBody FigmaDTO figmaDTO) {
+        try {
+            // Create a new Figma entity using the provided projectName and figmaURL
+            Figma figma = figmaService.createFigma(figmaDTO);
 
-                // Optionally, you can access the generated figmaId if needed
-                Long figmaId = figma.getFigmaId();
+            // Optionally, you can access the generated figmaId if needed
+            Long figmaId = figma.getFigmaId();
 
-                return ResponseEntity.ok("Figma created successfully properly okay bye");
+            return ResponseEntity.ok("Figma created successfully properly okay bye");
 
-            } catch (DataIntegrityViolationException e) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Could not create figma");
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Could not create figma");
         }
     }
 
 
-    @GetMapping("/getAll")
-    public ResponseEntity<Object> getAllFigmaProjects(@RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<Figma> figmaProjects = figmaService.getAllFigmaProjects();
+    @QueryBudget(3)
+    @GetMapping("/getAll") //whole list, or a keyset page when after/limit is given
+    public ResponseEntity<Object> getAllFigmaProjects(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count) {
+        if (after != null || limit != null) {
+            if (limit != null && limit < 1) {
+                return ResponseEntity.badRequest().body("Invalid limit");
+            }
+            return ResponseEntity.ok(figmaService.getFigmasPage(after != null ? after : 0, KeysetPage.clampLimit(limit), count));
+        }
+        List<Figma> figmaProjects = figmaService.getAllFigmaProjects();
 
-            List<FigmaDTO> figmaDTOs = figmaProjects.stream()
-                    .map(figma -> new FigmaDTO(
-                            figma.getFigmaId(),
-                            figmaService.mapProjectToProjectDTO(figma.getProject()),
-                            figma.getFigmaURL()))
-                    .collect(Collectors.toList());
+        List<FigmaDTO> figmaDTOs = figmaProjects.stream()
+                .map(figma -> new FigmaDTO(
+                        figma.getFigmaId(),
+                        figmaService.mapProjectToProjectDTO(figma.getProject()),
+                        figma.getFigmaURL()))
+                .collect(Collectors.toList());
 
-            return ResponseEntity.ok(figmaDTOs);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+        return ResponseEntity.ok(figmaDTOs);
     }
 
 
     @GetMapping("/get/{figmaId}")
-    public ResponseEntity<Object> getFigma(@PathVariable Long figmaId,
-                                           @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Optional<FigmaDTO> optionalFigmaDTO = figmaService.getFigmaById(figmaId);
-            if (optionalFigmaDTO.isPresent()){
-                return ResponseEntity.ok(optionalFigmaDTO);
-            }
-            else {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getFigma(@PathVariable Long figmaId) {
+        Optional<FigmaDTO> optionalFigmaDTO = figmaService.getFigmaById(figmaId);
+        if (optionalFigmaDTO.isPresent()){
+            return ResponseEntity.ok(optionalFigmaDTO);
+        }
+        else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     @PutMapping("/{figmaId}/user")//add user and screenshot to figma
     public ResponseEntity<String> addUserToFigma(@PathVariable("figmaId") Long figmaId,
-                                                 @RequestBody FigmaDTO figmaDTO,
-                                                 @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                Optional<Figma> optionalFigma = figmaRepository.findById(figmaId);
-                if(optionalFigma.isPresent()){
-                    Figma figma = optionalFigma.get();
-                    figma.setUser(figmaDTO.getUser());
-                    figma.setScreenshotImage(figmaDTO.getScreenshotImage());
-                    figmaRepository.save(figma);
-                    return ResponseEntity.ok("User added");
-                }else {
-                    return ResponseEntity.notFound().build();
-                }
-            }catch (Exception e){
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                                                 @RequestBody FigmaDTO figmaDTO){
+        try{
+            Optional<Figma> optionalFigma = figmaRepository.findById(figmaId);
+            if(optionalFigma.isPresent()){
+                Figma figma = optionalFigma.get();
+                figma.setUser(figmaDTO.getUser());
+                figma.setScreenshotImage(figmaDTO.getScreenshotImage());
+                figmaRepository.save(figma);
+                return ResponseEntity.ok("User added");
+            }else {
+                return ResponseEntity.notFound().build();
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
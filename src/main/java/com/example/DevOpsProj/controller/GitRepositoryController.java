@@ -1,9 +1,11 @@
 package com.example.DevOpsProj.controller;
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
 import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.model.GitRepository;
 import com.example.DevOpsProj.service.GitRepositoryService;
-import com.example.DevOpsProj.service.JwtService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -15,13 +17,13 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 
 @RestController
+@QueryBudget(6)
+@RequiresAccessToken
 @RequestMapping("/api/repositories")
 public class GitRepositoryController {
 
     @Autowired
     private final GitRepositoryService gitRepositoryService;
-    @Autowired
-    private JwtService jwtService;
 
     @Autowired
     public GitRepositoryController(GitRepositoryService gitRepositoryService) {
@@ -33,84 +35,62 @@ public class GitRepositoryController {
 
     @PostMapping("/add")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createRepository(@RequestBody GitRepository gitRepository,
-                                          @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            return ResponseEntity.ok(gitRepositoryService.createRepository(gitRepository));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> createRepository(@RequestBody GitRepository gitRepository) {
+        return ResponseEntity.ok(gitRepositoryService.createRepository(gitRepository));
     }
 
-    @GetMapping("/get")
-    public ResponseEntity<Object> getAllRepositories(@RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
+    @QueryBudget(3)
+    @GetMapping("/get") //whole list, or a keyset page when after/limit or a filter is given
+    public ResponseEntity<Object> getAllRepositories(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count,
+            @RequestParam(name = "namePrefix", required = false) String namePrefix) {
+        if (after == null && limit == null && namePrefix == null) {
             return ResponseEntity.ok(gitRepositoryService.getAllRepositories());
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
         }
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        return ResponseEntity.ok(gitRepositoryService.getRepositoriesPage(after != null ? after : 0, KeysetPage.clampLimit(limit),
+                namePrefix, count));
     }
 
     @GetMapping("/project/{id}")
     public ResponseEntity<Object> getAllReposByProject(
-            @PathVariable Long id,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<GitRepositoryDTO> gitRepositoryDTOS = gitRepositoryService.getAllRepositoriesByProject(id);
-            return new ResponseEntity<>(gitRepositoryDTOS, HttpStatus.OK);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+            @PathVariable Long id){
+        List<GitRepositoryDTO> gitRepositoryDTOS = gitRepositoryService.getAllRepositoriesByProject(id);
+        return new ResponseEntity<>(gitRepositoryDTOS, HttpStatus.OK);
     }
 
+    @QueryBudget(3)
     @GetMapping("/get/role/{role}")
     public ResponseEntity<Object> getAllReposByRole(
-            @PathVariable("role") String role,
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
-            return ResponseEntity.ok(gitRepositoryService.getAllReposByRole(enumRole));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+            @PathVariable("role") String role) {
+        EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
+        return ResponseEntity.ok(gitRepositoryService.getAllReposByRole(enumRole));
     }
 
     @GetMapping("/get/{id}")
     public ResponseEntity<Object> getRepositoryById(
-            @PathVariable Long id,
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            GitRepository repository = gitRepositoryService.getRepositoryById(id);
-            if (repository != null) {
-                GitRepositoryDTO repositoryDTO = new GitRepositoryDTO(repository.getName(), repository.getDescription());
-                return ResponseEntity.ok(repositoryDTO);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
+            @PathVariable Long id) {
+        GitRepository repository = gitRepositoryService.getRepositoryById(id);
+        if (repository != null) {
+            GitRepositoryDTO repositoryDTO = new GitRepositoryDTO(repository.getName(), repository.getDescription());
+            return ResponseEntity.ok(repositoryDTO);
         } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            return ResponseEntity.notFound().build();
         }
     }
 
     @DeleteMapping("/{repoId}")
-    public ResponseEntity<Object> deleteRepository(@PathVariable Long repoId,
-                                   @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                gitRepositoryService.deleteRepository(repoId);
-                return ResponseEntity.ok("Success");
+    public ResponseEntity<Object> deleteRepository(@PathVariable Long repoId) {
+        try {
+            gitRepositoryService.deleteRepository(repoId);
+            return ResponseEntity.ok("Success");
 
-            } catch (HttpClientErrorException.NotFound e) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Repository not found", e);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Repository not found", e);
         }
     }
 
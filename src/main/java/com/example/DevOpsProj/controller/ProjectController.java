@@ -1,6 +1,10 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.CurrentUser;
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.dto.responseDto.ProjectUserDTO;
 import com.example.DevOpsProj.dto.responseDto.UserDTO;
@@ -11,8 +15,9 @@ import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.GitRepositoryRepository;
 import com.example.DevOpsProj.repository.ProjectRepository;
 import com.example.DevOpsProj.repository.UserRepository;
-import com.example.DevOpsProj.service.JwtService;
+import com.example.DevOpsProj.service.DashboardStatsService;
 import com.example.DevOpsProj.service.ProjectService;
+import com.example.DevOpsProj.service.SoftDeleteArchiveService;
 import com.example.DevOpsProj.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,6 +35,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
+@QueryBudget(8)
+@RequiresAccessToken
 @RequestMapping("/api/projects")
 public class ProjectController {
 
@@ -44,7 +51,9 @@ public class ProjectController {
     @Autowired
     private GitRepositoryRepository gitRepositoryRepository;
     @Autowired
-    private JwtService jwtService;
+    private DashboardStatsService dashboardStatsService;
+    @Autowired
+    private SoftDeleteArchiveService softDeleteArchiveService;
 
 
 
@@ -65,241 +74,226 @@ public class ProjectController {
 //    }
 
     @PostMapping("/") //Save the project
-    public ResponseEntity<String> saveProject(@RequestBody ProjectDTO projectDTO,
-                                              @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                Project savedProject = projectService.saveProject(projectDTO);
-                return ResponseEntity.ok("Project created successfully");
-
-            } catch (DataIntegrityViolationException e) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Project already exists");
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<String> saveProject(@RequestBody ProjectDTO projectDTO) {
+        try {
+            Project savedProject = projectService.saveProject(projectDTO);
+            return ResponseEntity.ok("Project created successfully");
+
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Project already exists");
         }
     }
 
     @PostMapping("/create")
-    public ResponseEntity<Object> createProject(@RequestBody ProjectDTO projectDTO,
-                                                @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            ProjectDTO createdProjectDTO = projectService.createProject(projectDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdProjectDTO);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> createProject(@RequestBody ProjectDTO projectDTO){
+        ProjectDTO createdProjectDTO = projectService.createProject(projectDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdProjectDTO);
     }
 
     @GetMapping("/{id}") //get project by id
-    public ResponseEntity<Object> getProjectById(@PathVariable("id") Long id,
-                                                 @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                Optional<Project> checkProject = projectService.getProjectById(id);
-                Project project = checkProject.get();
-                if(project.getDeleted()){
-                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-                }
-                ProjectDTO projectDTO = new ProjectDTO();
-                projectDTO.setProjectId(project.getProjectId());
-                projectDTO.setProjectName(project.getProjectName());
-                projectDTO.setProjectDescription(project.getProjectDescription());
-                return new ResponseEntity<>(projectDTO, HttpStatus.OK);
-            }catch (NotFoundException e){
+    public ResponseEntity<Object> getProjectById(@PathVariable("id") Long id){
+        try{
+            Optional<Project> checkProject = projectService.getProjectById(id);
+            Project project = checkProject.get();
+            if(project.getDeleted()){
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }catch (IllegalArgumentException e){
-                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            ProjectDTO projectDTO = new ProjectDTO();
+            projectDTO.setProjectId(project.getProjectId());
+            projectDTO.setProjectName(project.getProjectName());
+            projectDTO.setProjectDescription(project.getProjectDescription());
+            return new ResponseEntity<>(projectDTO, HttpStatus.OK);
+        }catch (NotFoundException e){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }catch (IllegalArgumentException e){
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    @GetMapping("/all") //retrieve list of all projects
-    public ResponseEntity<Object> getAll(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                List<Project> projects = projectService.getAll();
-                List<ProjectDTO> projectDTOs = projects.stream()
-                        .map(project -> new ProjectDTO(project.getProjectId(),project.getProjectName(),project.getProjectDescription(), project.getLastUpdated(), project.getDeleted()))
-                        .collect(Collectors.toList());
-                return new ResponseEntity<>(projectDTOs, HttpStatus.OK);
-
-            }catch (NotFoundException e){
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    @QueryBudget(3)
+    @GetMapping("/all") //retrieve list of all projects, or a keyset page when after/limit or a filter is given
+    public ResponseEntity<Object> getAll(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count,
+            @RequestParam(name = "deleted", required = false) Boolean deleted,
+            @RequestParam(name = "namePrefix", required = false) String namePrefix){
+        if (after != null || limit != null || deleted != null || namePrefix != null) {
+            if (limit != null && limit < 1) {
+                return ResponseEntity.badRequest().body("Invalid limit");
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            return ResponseEntity.ok(projectService.getProjectsPage(after != null ? after : 0, KeysetPage.clampLimit(limit),
+                    deleted, namePrefix, count,
+                    project -> new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), project.getLastUpdated(), project.getDeleted())));
         }
-    }
+        try{
+            List<Project> projects = projectService.getAll();
+            List<ProjectDTO> projectDTOs = projects.stream()
+                    .map(project -> new ProjectDTO(project.getProjectId(),project.getProjectName(),project.getProjectDescription(), project.getLastUpdated(), project.getDeleted()))
+                    .collect(Collectors.toList());
+            return new ResponseEntity<>(projectDTOs, HttpStatus.OK);
 
-    @GetMapping("/allProjects") //retrieve list of projects
-    public ResponseEntity<Object> getAllProjects(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                List<Project> projects = projectService.getAllProjects();
-                List<ProjectDTO> projectDTOs = projects.stream()
-                        .map(project -> new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription()))
-                        .collect(Collectors.toList());
-                return new ResponseEntity<>(projectDTOs, HttpStatus.OK);
+        }catch (NotFoundException e){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 
-            }catch (NotFoundException e){
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    @QueryBudget(3)
+    @GetMapping("/allProjects") //retrieve list of projects, or a keyset page when after/limit or a filter is given
+    public ResponseEntity<Object> getAllProjects(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count,
+            @RequestParam(name = "namePrefix", required = false) String namePrefix){
+        if (after != null || limit != null || namePrefix != null) {
+            if (limit != null && limit < 1) {
+                return ResponseEntity.badRequest().body("Invalid limit");
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            return ResponseEntity.ok(projectService.getProjectsPage(after != null ? after : 0, KeysetPage.clampLimit(limit),
+                    false, namePrefix, count,
+                    project -> new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription())));
+        }
+        try{
+            List<Project> projects = projectService.getAllProjects();
+            List<ProjectDTO> projectDTOs = projects.stream()
+                    .map(project -> new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription()))
+                    .collect(Collectors.toList());
+            return new ResponseEntity<>(projectDTOs, HttpStatus.OK);
+
+        }catch (NotFoundException e){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
 
     //get list of user in the project
     @GetMapping("/{projectId}/users")
-    public ResponseEntity<Object> getAllUsersByProjectId(@PathVariable Long projectId,
-                                                         @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                List<User> userList = projectService.getAllUsersByProjectId(projectId);
-                if (userList == null){
-                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-                }
-                List<UserDTO> userDTOList = userList.stream()
-                        .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                        .collect(Collectors.toList());
-                return ResponseEntity.ok(userDTOList);
-            }catch (NotFoundException e){
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<Object> getAllUsersByProjectId(@PathVariable Long projectId){
+        try{
+            List<User> userList = projectService.getAllUsersByProjectId(projectId);
+            if (userList == null){
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            List<UserDTO> userDTOList = userList.stream()
+                    .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(userDTOList);
+        }catch (NotFoundException e){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/{projectId}/users/{role}")
     public ResponseEntity<Object> getAllUsersByProjectIdByRole(
             @PathVariable Long projectId,
-            @PathVariable String role,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
-                List<User> userList = projectService.getAllUsersByProjectIdAndRole(projectId, enumRole);
-                if (userList == null){
-                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-                }
-                List<UserDTO> userDTOList = userList.stream()
-                        .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                        .collect(Collectors.toList());
-                return ResponseEntity.ok(userDTOList);
-            }catch (NoSuchElementException e){
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            @PathVariable String role){
+        try{
+            EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
+            List<User> userList = projectService.getAllUsersByProjectIdAndRole(projectId, enumRole);
+            if (userList == null){
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            List<UserDTO> userDTOList = userList.stream()
+                    .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(userDTOList);
+        }catch (NoSuchElementException e){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @PutMapping("/update/{projectId}") //update project
     public ResponseEntity<Object> updateProject(@PathVariable("projectId") Long projectId,
-                                                @RequestBody ProjectDTO projectDTO,
-                                                @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                Optional<Project> optionalProject = projectService.getProjectById(projectId);
-                if (optionalProject.isPresent()) {
-                    Project existingProject = optionalProject.get();
-                    existingProject.setProjectName(projectDTO.getProjectName());
-                    existingProject.setProjectDescription(projectDTO.getProjectDescription());
-                    existingProject.setLastUpdated(LocalDateTime.now());
-                    Project updatedProject = projectService.updateProject(existingProject);
-                    ProjectDTO updatedProjectDTO = new ProjectDTO(updatedProject.getProjectId(), updatedProject.getProjectName(), updatedProject.getProjectDescription(), updatedProject.getLastUpdated());
-                    return new ResponseEntity<>(updatedProjectDTO, HttpStatus.OK);
-                } else {
-                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-                }
-            }catch (IllegalArgumentException e){
-                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+                                                @RequestBody ProjectDTO projectDTO){
+        try {
+            Optional<Project> optionalProject = projectService.getProjectById(projectId);
+            if (optionalProject.isPresent()) {
+                Project existingProject = optionalProject.get();
+                existingProject.setProjectName(projectDTO.getProjectName());
+                existingProject.setProjectDescription(projectDTO.getProjectDescription());
+                existingProject.setLastUpdated(LocalDateTime.now());
+                Project updatedProject = projectService.updateProject(existingProject);
+                ProjectDTO updatedProjectDTO = new ProjectDTO(updatedProject.getProjectId(), updatedProject.getProjectName(), updatedProject.getProjectDescription(), updatedProject.getLastUpdated());
+                return new ResponseEntity<>(updatedProjectDTO, HttpStatus.OK);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        }catch (IllegalArgumentException e){
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @DeleteMapping("/delete/{id}") //delete project (soft)
-    public ResponseEntity<String> deleteProject(@PathVariable("id") Long id,
-                                                @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            if(projectService.existsProjectById(id)){
-                boolean checkIfDeleted = projectService.existsByIdIsDeleted(id);
-                if(checkIfDeleted){
-                    return ResponseEntity.ok("Project doesn't exist");
-                }
-                boolean isDeleted = projectService.softDeleteProject(id);
-                if(isDeleted){
-                    return ResponseEntity.ok("Deleted project successfully");
-                }
-                else{
-                    return ResponseEntity.ok("404 Not Found");
-                }
+    public ResponseEntity<String> deleteProject(@PathVariable("id") Long id){
+        if(projectService.existsProjectById(id)){
+            boolean checkIfDeleted = projectService.existsByIdIsDeleted(id);
+            if(checkIfDeleted){
+                return ResponseEntity.ok("Project doesn't exist");
+            }
+            boolean isDeleted = projectService.softDeleteProject(id);
+            if(isDeleted){
+                return ResponseEntity.ok("Deleted project successfully");
+            }
+            else{
+                return ResponseEntity.ok("404 Not Found");
             }
-            else return ResponseEntity.ok("Invalid project id");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
         }
+        else return ResponseEntity.ok("Invalid project id");
+    }
+
+    @PutMapping("/restore/{id}") //undo a soft delete, also brings the project back from the archive
+    public ResponseEntity<String> restoreProject(@PathVariable("id") Long id){
+        if(softDeleteArchiveService.restoreProject(id)){
+            return ResponseEntity.ok("Restored project successfully");
+        }
+        return new ResponseEntity<>("Project is not deleted or doesn't exist", HttpStatus.NOT_FOUND);
     }
 
     @PutMapping("/{projectId}/users/{userId}") //add user to project
     public ResponseEntity<Object> addUserToProject(
             @PathVariable("projectId") Long projectId,
             @PathVariable("userId") Long userId,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                Optional<Project> optionalProject = projectRepository.findById(projectId);
-                Optional<User> optionalUser = userRepository.findById(userId);
-                if (optionalProject.isPresent() && optionalUser.isPresent()) {
-                    Project project = optionalProject.get();
-                    User user = optionalUser.get();
-                    if(projectService.existUserInProject(project.getProjectId(), user.getId())){
-                        return new ResponseEntity<>(HttpStatus.CONFLICT);
-                    }
-                    project.getUsers().add(user);
-                    projectRepository.save(project);
-                    List<UserDTO> userDTOList = project.getUsers().stream()
-                            .map(users -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                            .collect(Collectors.toList());
-                    ProjectUserDTO projectUserDTO = new ProjectUserDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), userDTOList);
-                    return new ResponseEntity<>(projectUserDTO, HttpStatus.OK);
-                } else {
-                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            @CurrentUser User currentUser){
+        try {
+            Optional<Project> optionalProject = projectRepository.findById(projectId);
+            //reuse the principal already loaded for this request when users add themselves
+            Optional<User> optionalUser = currentUser != null && currentUser.getId().equals(userId)
+                    ? Optional.of(currentUser)
+                    : userRepository.findById(userId);
+            if (optionalProject.isPresent() && optionalUser.isPresent()) {
+                Project project = optionalProject.get();
+                User user = optionalUser.get();
+                if(projectService.existUserInProject(project.getProjectId(), user.getId())){
+                    return new ResponseEntity<>(HttpStatus.CONFLICT);
                 }
-            }catch (Exception e){
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+                project.getUsers().add(user);
+                projectRepository.save(project);
+                projectService.evictUserProjects(List.of(user.getId()));
+                if (!Boolean.TRUE.equals(project.getDeleted())) {
+                    dashboardStatsService.memberAdded(user.getEnumRole());
+                }
+                List<UserDTO> userDTOList = project.getUsers().stream()
+                        .map(users -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                        .collect(Collectors.toList());
+                ProjectUserDTO projectUserDTO = new ProjectUserDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), userDTOList);
+                return new ResponseEntity<>(projectUserDTO, HttpStatus.OK);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        }catch (Exception e){
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -307,28 +301,29 @@ public class ProjectController {
     public ResponseEntity<String> removeUserFromProject(
             @PathVariable("projectId") Long projectId,
             @PathVariable("userId") Long userId,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            //for checking if the project with given id exists
-            Optional<Project> optionalProject = projectRepository.findById(projectId);
-            //for checking if the user with given id exists
-            Optional<User> optionalUser = userRepository.findById(userId);
-            if(optionalProject.isPresent() && optionalUser.isPresent()){
-                Project project = optionalProject.get();
-                User user = optionalUser.get();
-                project.getUsers().remove(user);
-                projectRepository.save(project);
-                List<UserDTO> userDTOList = project.getUsers().stream()
-                        .map(users -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                        .toList();
-                ProjectUserDTO projectUserDTO = new ProjectUserDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), userDTOList);
-                return ResponseEntity.ok("User removed");
+            @CurrentUser User currentUser){
+        //for checking if the project with given id exists
+        Optional<Project> optionalProject = projectRepository.findById(projectId);
+        //for checking if the user with given id exists
+        Optional<User> optionalUser = currentUser != null && currentUser.getId().equals(userId)
+                ? Optional.of(currentUser)
+                : userRepository.findById(userId);
+        if(optionalProject.isPresent() && optionalUser.isPresent()){
+            Project project = optionalProject.get();
+            User user = optionalUser.get();
+            boolean removed = project.getUsers().remove(user);
+            projectRepository.save(project);
+            projectService.evictUserProjects(List.of(user.getId()));
+            if (removed && !Boolean.TRUE.equals(project.getDeleted())) {
+                dashboardStatsService.memberRemoved(user.getEnumRole());
             }
-            else return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Project or User not found");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            List<UserDTO> userDTOList = project.getUsers().stream()
+                    .map(users -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                    .toList();
+            ProjectUserDTO projectUserDTO = new ProjectUserDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), userDTOList);
+            return ResponseEntity.ok("User removed");
         }
+        else return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Project or User not found");
     }
 
     @DeleteMapping("/{projectId}/users/{userId}/roles/{roleId}")
@@ -339,183 +334,137 @@ public class ProjectController {
     @GetMapping("/{projectId}/users/role/{role}")
     public ResponseEntity<Object> getUsersByProjectIdAndRole(
             @PathVariable("projectId") Long projectId,
-            @PathVariable("role") String role,
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole userRole = EnumRole.valueOf(role.toUpperCase());
-            List<User> users = projectService.getUsersByProjectIdAndRole(projectId, userRole);
-            List<UserDTO> userDTOList = users.stream()
-                    .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                    .collect(Collectors.toList());
-            return new ResponseEntity<>(userDTOList, HttpStatus.OK);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+            @PathVariable("role") String role) {
+        EnumRole userRole = EnumRole.valueOf(role.toUpperCase());
+        List<User> users = projectService.getUsersByProjectIdAndRole(projectId, userRole);
+        List<UserDTO> userDTOList = users.stream()
+                .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(userDTOList, HttpStatus.OK);
     }
 
     @PutMapping("/{projectId}/repository/{repoId}") // add repository to project
     public ResponseEntity<Object> addRepositoryToProject(
             @PathVariable("projectId") Long projectId,
-            @PathVariable("repoId") Long repoId,
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try {
-                Optional<Project> optionalProject = projectRepository.findById(projectId);
-                Optional<GitRepository> optionalGitRepository = gitRepositoryRepository.findById(repoId);
-                if (optionalProject.isPresent() && optionalGitRepository.isPresent()) {
-                    Project project = optionalProject.get();
-                    GitRepository gitRepository = optionalGitRepository.get();
-
-                    // Check if the project has been deleted
-                    if (!project.getDeleted()) {
-                        gitRepository.setProject(project);
-                    } else {
-                        gitRepository.setProject(null);
-                    }
-                    gitRepositoryRepository.save(gitRepository);
-                    return ResponseEntity.ok("Stored successfully");
+            @PathVariable("repoId") Long repoId) {
+        try {
+            Optional<Project> optionalProject = projectRepository.findById(projectId);
+            Optional<GitRepository> optionalGitRepository = gitRepositoryRepository.findById(repoId);
+            if (optionalProject.isPresent() && optionalGitRepository.isPresent()) {
+                Project project = optionalProject.get();
+                GitRepository gitRepository = optionalGitRepository.get();
+
+                // Check if the project has been deleted
+                if (!Boolean.TRUE.equals(project.getDeleted())) {
+                    gitRepository.setProject(project);
                 } else {
-                    return ResponseEntity.notFound().build();
+                    gitRepository.setProject(null);
                 }
-            } catch (Exception e) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                gitRepositoryRepository.save(gitRepository);
+                return ResponseEntity.ok("Stored successfully");
+            } else {
+                return ResponseEntity.notFound().build();
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    @GetMapping("/without-figma-url")
+    @QueryBudget(3)
+    @GetMapping("/without-figma-url") //whole list, or a keyset page when after/limit is given
     public ResponseEntity<Object> getProjectsWithoutFigmaURL(
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count) {
+        if (after == null && limit == null) {
             List<ProjectDTO> projects = projectService.getProjectsWithoutFigmaURL();
             return ResponseEntity.ok(projects);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
         }
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        return ResponseEntity.ok(projectService.getProjectsWithoutFigmaURLPage(after != null ? after : 0,
+                KeysetPage.clampLimit(limit), count));
     }
 
     @GetMapping("/count")
-    public ResponseEntity<Object> countAllProjects(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countProjects = projectService.getCountAllProjects();
-            if (countProjects == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countProjects);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllProjects(){
+        Integer countProjects = projectService.getCountAllProjects();
+        if (countProjects == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countProjects);
         }
     }
 
     @GetMapping("/count/role/{role}")
-    public ResponseEntity<Object> countAllProjectsByRole(@PathVariable("role") String role,
-                                          @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
-            Integer countProjects = projectService.getCountAllProjectsByRole(enumRole);
-            if (countProjects == 0) {
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countProjects);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllProjectsByRole(@PathVariable("role") String role){
+        EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
+        Integer countProjects = projectService.getCountAllProjectsByRole(enumRole);
+        if (countProjects == 0) {
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countProjects);
         }
     }
 
     @GetMapping("/count/user/{userId}")
-    public ResponseEntity<Object> countAllProjectsByUserId(@PathVariable("userId") Long id,
-                                                           @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countProjects = projectService.getCountAllProjectsByUserId(id);
-            if(countProjects == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countProjects);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllProjectsByUserId(@PathVariable("userId") Long id){
+        Integer countProjects = projectService.getCountAllProjectsByUserId(id);
+        if(countProjects == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countProjects);
         }
     }
 
     @GetMapping("/{projectId}/count")
-    public ResponseEntity<Object> countAllUsersByProjectId(@PathVariable Long projectId,
-                                            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countUsers = projectService.getCountAllUsersByProjectId(projectId);
-            if (countUsers == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countUsers);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllUsersByProjectId(@PathVariable Long projectId){
+        Integer countUsers = projectService.getCountAllUsersByProjectId(projectId);
+        if (countUsers == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countUsers);
         }
     }
 
     @GetMapping("/{projectId}/count/{role}")
     public ResponseEntity<Object> countAllUsersByProjectIdByRole(
             @PathVariable Long projectId,
-            @PathVariable String role,
-            @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
-            Integer countUsers = projectService.getCountAllUsersByProjectIdAndRole(projectId, enumRole);
-            if (countUsers == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countUsers);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            @PathVariable String role){
+        EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
+        Integer countUsers = projectService.getCountAllUsersByProjectIdAndRole(projectId, enumRole);
+        if (countUsers == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countUsers);
         }
     }
 
     @GetMapping("/count/active")
-    public ResponseEntity<Object> countAllActiveProjects(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countProjects = projectService.getCountAllActiveProjects();
-            if (countProjects==0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countProjects);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllActiveProjects(){
+        Integer countProjects = projectService.getCountAllActiveProjects();
+        if (countProjects==0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countProjects);
         }
     }
 
     @GetMapping("/count/inactive")
-    public ResponseEntity<Object> countAllInActiveProjects(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countProjects = projectService.getCountAllInActiveProjects();
-            if (countProjects==0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countProjects);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> countAllInActiveProjects(){
+        Integer countProjects = projectService.getCountAllInActiveProjects();
+        if (countProjects==0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countProjects);
         }
     }
 
@@ -0,0 +1,26 @@
+package com.example.DevOpsProj.controller;
+
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
+import com.example.DevOpsProj.dto.responseDto.DashboardStatsDTO;
+import com.example.DevOpsProj.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@QueryBudget(6)
+@RequiresAccessToken
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @GetMapping //every dashboard figure in one response, served from in-memory counters
+    public ResponseEntity<DashboardStatsDTO> getDashboardStats(){
+        return ResponseEntity.ok(dashboardStatsService.getStats());
+    }
+}
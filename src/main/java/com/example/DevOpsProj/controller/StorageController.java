@@ -1,9 +1,10 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
 import com.example.DevOpsProj.service.StorageService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import static org.springframework.data.util.TypeUtils.type;
 
 @RestController
+@QueryBudget(4)
 @RequestMapping("/file")
 public class StorageController {
 
@@ -27,12 +29,15 @@ public class StorageController {
                 .body(uploadFile);
     }
 
+    //inflated straight into the response, the file is never held in memory as a whole
     @GetMapping("/{fileId}")
-    public ResponseEntity<?> downloadFile(@PathVariable("fileId") Long fileId){
-        byte[] fileData = storageService.downloadFile(fileId);
+    public void downloadFile(@PathVariable("fileId") Long fileId, HttpServletResponse response) throws IOException {
         String contentType = storageService.getContentType(fileId);
-        return ResponseEntity.status(HttpStatus.OK)
-                .contentType(MediaType.valueOf(contentType))
-                .body(fileData);
+        if (contentType == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType(contentType);
+        storageService.writeFile(fileId, response.getOutputStream());
     }
 }
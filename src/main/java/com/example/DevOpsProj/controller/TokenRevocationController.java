@@ -0,0 +1,71 @@
+package com.example.DevOpsProj.controller;
+
+import com.example.DevOpsProj.commons.annotations.CurrentUser;
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.responseDto.TokenRevocationDTO;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@QueryBudget(10)
+@RequiresAccessToken
+@RequestMapping("/api/admin/tokens")
+public class TokenRevocationController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @PostMapping("/revoke/users/{userId}") //revoke every token of one user
+    public ResponseEntity<Object> revokeByUser(@PathVariable("userId") Long userId,
+                                               @CurrentUser User currentUser){
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        return ResponseEntity.ok(tokenRevocationService.revokeByUser(userId));
+    }
+
+    @PostMapping("/revoke/users") //revoke every token of a list of users
+    public ResponseEntity<Object> revokeByUsers(@RequestBody List<Long> userIds,
+                                                @CurrentUser User currentUser){
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        return ResponseEntity.ok(tokenRevocationService.revokeByUsers(userIds));
+    }
+
+    @PostMapping("/revoke/role/{role}") //revoke every token of the users with a role
+    public ResponseEntity<Object> revokeByRole(@PathVariable("role") String role,
+                                               @CurrentUser User currentUser){
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        EnumRole userRole = EnumRole.valueOf(role.toUpperCase());
+        TokenRevocationDTO revocation = tokenRevocationService.revokeByRole(userRole);
+        return ResponseEntity.ok(revocation);
+    }
+
+    @PostMapping("/revoke/issued-before") //revoke every token issued before the given instant, e.g. after a key rotation
+    public ResponseEntity<Object> revokeIssuedBefore(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant before,
+            @CurrentUser User currentUser){
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        return ResponseEntity.ok(tokenRevocationService.revokeIssuedBefore(before));
+    }
+
+    private boolean isAdmin(User user) {
+        return user != null
+                && (user.getEnumRole() == EnumRole.ADMIN || user.getEnumRole() == EnumRole.SUPER_ADMIN);
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
 import com.example.DevOpsProj.dto.requestDto.UserCreationDTO;
 import com.example.DevOpsProj.dto.responseDto.*;
 import com.example.DevOpsProj.model.Figma;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.model.User;
-import com.example.DevOpsProj.service.JwtService;
+import com.example.DevOpsProj.service.SoftDeleteArchiveService;
 import com.example.DevOpsProj.service.UserService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,225 +23,203 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
+@QueryBudget(8)
+@RequiresAccessToken
 @RequestMapping("/api/users")
 public class UserController {
 
     @Autowired
     private UserService userService;
+
     @Autowired
-    private JwtService jwtService;
+    private SoftDeleteArchiveService softDeleteArchiveService;
 
     private ModelMapper modelMapper;
 
 
     @PostMapping("/") //Save the user
-    public ResponseEntity<Object> saveUser(@RequestBody UserCreationDTO userCreationDTO,
-                                         @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            User savedUser = userService.saveUser(userCreationDTO);
-            return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> saveUser(@RequestBody UserCreationDTO userCreationDTO){
+        User savedUser = userService.saveUser(userCreationDTO);
+        return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
     }
 
     @GetMapping("/{user_id}") //find user by user id
-    public ResponseEntity<Object> getUserById(@PathVariable Long user_id,
-                                               @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Optional<User> optionalUser = userService.getUserById(user_id);
-            if(optionalUser.isPresent()){
-                User user = optionalUser.get();
-                UserDTO userDTO = new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole());
-                return new ResponseEntity<>(userDTO, HttpStatus.OK);
-            }
-            else return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getUserById(@PathVariable Long user_id){
+        Optional<User> optionalUser = userService.getUserById(user_id);
+        if(optionalUser.isPresent()){
+            User user = optionalUser.get();
+            UserDTO userDTO = new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole());
+            return new ResponseEntity<>(userDTO, HttpStatus.OK);
         }
+        else return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @PutMapping("/update/{id}")//update user by id
     public ResponseEntity<Object> updateUser(@PathVariable("id") Long id,
-                                             @RequestBody UserDTO userDTO,
-                                             @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            UserDTO userDTOs = userService.updateUser(id, userDTO);
-            return new ResponseEntity<>(userDTOs, HttpStatus.OK);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+                                             @RequestBody UserDTO userDTO){
+        UserDTO userDTOs = userService.updateUser(id, userDTO);
+        return new ResponseEntity<>(userDTOs, HttpStatus.OK);
     }
 
     @DeleteMapping("/delete/{user_id}") //soft-deleting user
-    public ResponseEntity<String> deleteUserById(@PathVariable Long user_id,
-                                                 @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            if(userService.existsById(user_id)) {
-                boolean checkIfDeleted = userService.existsByIdIsDeleted(user_id); //check if deleted = true?
-                if (checkIfDeleted) {
-                    return ResponseEntity.ok("User doesn't exist");
-                    //user is present in db but deleted=true(soft deleted)
-                }
-                boolean isDeleted = userService.softDeleteUser(user_id); //soft deletes user with id (yes/no)
-                if(isDeleted){
-                    return ResponseEntity.ok("User successfully deleted");
-                    //successfully deleting user (soft delete) (user exists in db)
-                }
-                else{
-                    return ResponseEntity.ok("404 Not found");
-                    //gives 404 Not Found error response
-                }
+    public ResponseEntity<String> deleteUserById(@PathVariable Long user_id){
+        if(userService.existsById(user_id)) {
+            boolean checkIfDeleted = userService.existsByIdIsDeleted(user_id); //check if deleted = true?
+            if (checkIfDeleted) {
+                return ResponseEntity.ok("User doesn't exist");
+                //user is present in db but deleted=true(soft deleted)
+            }
+            boolean isDeleted = userService.softDeleteUser(user_id); //soft deletes user with id (yes/no)
+            if(isDeleted){
+                return ResponseEntity.ok("User successfully deleted");
+                //successfully deleting user (soft delete) (user exists in db)
+            }
+            else{
+                return ResponseEntity.ok("404 Not found");
+                //gives 404 Not Found error response
             }
-            else return ResponseEntity.ok("Invalid user ID");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
         }
+        else return ResponseEntity.ok("Invalid user ID");
     }
 
-    @GetMapping("/role/{role}") //get list of user by role
-    public ResponseEntity<Object> getUserByRoleId(@PathVariable("role") String role,
-                                                       @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole userRole = EnumRole.valueOf(role.toUpperCase()); //getting value of role(string)
-            List<User> users = userService.getUsersByRole(userRole);
-            List<UserDTO> userDTOList = users.stream()
-                    .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                    .collect(Collectors.toList());
-            return new ResponseEntity<>(userDTOList, HttpStatus.OK);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    @PutMapping("/restore/{user_id}") //undo a soft delete, also brings the user back from the archive
+    public ResponseEntity<String> restoreUserById(@PathVariable Long user_id){
+        if(softDeleteArchiveService.restoreUser(user_id)){
+            return ResponseEntity.ok("User successfully restored");
         }
+        return new ResponseEntity<>("User is not deleted or doesn't exist", HttpStatus.NOT_FOUND);
+    }
+
+    @GetMapping("/role/{role}") //get list of user by role
+    public ResponseEntity<Object> getUserByRoleId(@PathVariable("role") String role){
+        EnumRole userRole = EnumRole.valueOf(role.toUpperCase()); //getting value of role(string)
+        List<User> users = userService.getUsersByRole(userRole);
+        List<UserDTO> userDTOList = users.stream()
+                .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(userDTOList, HttpStatus.OK);
     }
 
     @GetMapping("/count") //get count of all the users
-    public ResponseEntity<Object> getCountAllUsers(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countUsers = userService.getCountAllUsers();
-            if (countUsers == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countUsers);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getCountAllUsers(){
+        Integer countUsers = userService.getCountAllUsers();
+        if (countUsers == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countUsers);
         }
     }
 
     @GetMapping("/count/{role}")
-    public ResponseEntity<Object> getCountAllUsersByRole(@PathVariable String role,
-                                          @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole userRole = EnumRole.valueOf(role.toUpperCase());
-            Integer countUsersByRole = userService.getCountAllUsersByRole(userRole);
-            if(countUsersByRole == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countUsersByRole);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getCountAllUsersByRole(@PathVariable String role){
+        EnumRole userRole = EnumRole.valueOf(role.toUpperCase());
+        Integer countUsersByRole = userService.getCountAllUsersByRole(userRole);
+        if(countUsersByRole == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countUsersByRole);
         }
     }
 
     @GetMapping("/count/project/{projectId}")
-    public ResponseEntity<Object> getCountAllUsersByProjectId(@PathVariable Long projectId,
-                                                              @RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            Integer countUsersByProject = userService.getCountAllUsersByProjectId(projectId);
-            if (countUsersByProject == 0){
-                return ResponseEntity.ok(0);
-            }
-            else {
-                return ResponseEntity.ok(countUsersByProject);
-            }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getCountAllUsersByProjectId(@PathVariable Long projectId){
+        Integer countUsersByProject = userService.getCountAllUsersByProjectId(projectId);
+        if (countUsersByProject == 0){
+            return ResponseEntity.ok(0);
+        }
+        else {
+            return ResponseEntity.ok(countUsersByProject);
         }
     }
 
     @GetMapping("/{id}/projects")
-    public ResponseEntity<Object> getAllProjectsByUserId(@PathVariable Long id,
-                                                         @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<ProjectDTO> projects = userService.getAllProjectsAndRepositoriesByUserId(id);
-            return ResponseEntity.ok(projects);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> getAllProjectsByUserId(@PathVariable Long id) {
+        List<ProjectDTO> projects = userService.getAllProjectsAndRepositoriesByUserId(id);
+        return ResponseEntity.ok(projects);
     }
 
     @GetMapping("{id}/role/{role}/projects") // Get list of project for particular employee
     public ResponseEntity<Object> getProjectsByRoleIdAndUserId(
             @PathVariable("id") Long userId,
-            @PathVariable("role") String role,
-            @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole userRole = EnumRole.valueOf(role.toUpperCase()); // Getting value of role(string)
-            List<Project> projects = userService.getUsersByRoleAndUserId(userId, userRole);
-            if (projects.isEmpty()){
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-            }
-            List<ProjectDTO> projectDTOList = projects.stream()
-                    .map(project -> {
-                        List<GitRepositoryDTO> repositoryDTOList = project.getRepositories().stream()
-                                .map(repository -> new GitRepositoryDTO( repository.getName(), repository.getDescription()))
-                                .collect(Collectors.toList());
-                        Figma figma = project.getFigma();
-                        String figmaURL = figma != null ? figma.getFigmaURL() : null; // Retrieve the Figma URL
-                        FigmaDTO figmaDTO = new FigmaDTO(figmaURL);
-                        return new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), project.getUsers(), repositoryDTOList, figmaDTO);
-                    })
-                    .collect(Collectors.toList());
-
-
-            return new ResponseEntity<>(projectDTOList, HttpStatus.OK);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+            @PathVariable("role") String role) {
+        EnumRole userRole = EnumRole.valueOf(role.toUpperCase()); // Getting value of role(string)
+        List<Project> projects = userService.getUsersByRoleAndUserId(userId, userRole);
+        if (projects.isEmpty()){
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
+        List<ProjectDTO> projectDTOList = projects.stream()
+                .map(project -> {
+                    List<GitRepositoryDTO> repositoryDTOList = project.getRepositories().stream()
+                            .map(repository -> new GitRepositoryDTO( repository.getName(), repository.getDescription()))
+                            .collect(Collectors.toList());
+                    Figma figma = project.getFigma();
+                    String figmaURL = figma != null ? figma.getFigmaURL() : null; // Retrieve the Figma URL
+                    FigmaDTO figmaDTO = new FigmaDTO(figmaURL);
+                    return new ProjectDTO(project.getProjectId(), project.getProjectName(), project.getProjectDescription(), project.getUsers(), repositoryDTOList, figmaDTO);
+                })
+                .collect(Collectors.toList());
+
+
+        return new ResponseEntity<>(projectDTOList, HttpStatus.OK);
     }
 
-    @GetMapping("/get")
-    public ResponseEntity<Object> getAllUsers(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
+    @QueryBudget(3)
+    @GetMapping("/get") //whole list, or a keyset page when after/limit or a filter is given
+    public ResponseEntity<Object> getAllUsers(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "count", defaultValue = "false") boolean count,
+            @RequestParam(name = "role", required = false) String role,
+            @RequestParam(name = "deleted", required = false) Boolean deleted,
+            @RequestParam(name = "namePrefix", required = false) String namePrefix){
+        if (after == null && limit == null && role == null && deleted == null && namePrefix == null) {
             return ResponseEntity.ok(userService.getAllUsers());
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
         }
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        EnumRole userRole = role != null ? EnumRole.valueOf(role.toUpperCase()) : null;
+        return ResponseEntity.ok(userService.getUsersPage(after != null ? after : 0, KeysetPage.clampLimit(limit),
+                userRole, deleted, namePrefix, count));
     }
 
+    @QueryBudget(4)
     @GetMapping("/getAll")
-    public ResponseEntity<Object> getAllUsersWithProjects(@RequestHeader("AccessToken") String accessToken){
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<UserProjectsDTO> userProjectsDTOs = userService.getAllUsersWithProjects();
-            return ResponseEntity.ok(userProjectsDTOs);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getAllUsersWithProjects(
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "size", required = false) Integer size){
+        if (page == null && size == null) {
+            return ResponseEntity.ok(userService.getAllUsersWithProjects());
+        }
+        int pageNumber = page != null ? page : 0;
+        //same default and cap as the keyset listings
+        int pageSize = KeysetPage.clampLimit(size);
+        if (pageNumber < 0 || pageSize < 1) {
+            return ResponseEntity.badRequest().body("Invalid page or size");
         }
+        List<UserProjectsDTO> userProjectsDTOs = userService.getAllUsersWithProjects(pageNumber, pageSize);
+        return ResponseEntity.ok(userProjectsDTOs);
     }
 
+    @QueryBudget(4)
     @GetMapping("/getMultiple")
-    public ResponseEntity<Object> getUsersWithMultipleProjects(@RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            List<UserProjectsDTO> usersWithMultipleProjects = userService.getUsersWithMultipleProjects();
-            return ResponseEntity.ok(usersWithMultipleProjects);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+    public ResponseEntity<Object> getUsersWithMultipleProjects(
+            @RequestParam(name = "role", required = false) String role,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "size", required = false) Integer size) {
+        EnumRole userRole = role != null ? EnumRole.valueOf(role.toUpperCase()) : null;
+        Pageable pageable = Pageable.unpaged();
+        if (page != null || size != null) {
+            int pageNumber = page != null ? page : 0;
+            int pageSize = KeysetPage.clampLimit(size);
+            if (pageNumber < 0 || pageSize < 1) {
+                return ResponseEntity.badRequest().body("Invalid page or size");
+            }
+            pageable = PageRequest.of(pageNumber, pageSize);
         }
+        List<UserProjectsDTO> usersWithMultipleProjects = userService.getUsersWithMultipleProjects(userRole, pageable);
+        return ResponseEntity.ok(usersWithMultipleProjects);
     }
 }
@@ -1,8 +1,9 @@
 package com.example.DevOpsProj.controller;
 
+import com.example.DevOpsProj.commons.annotations.QueryBudget;
+import com.example.DevOpsProj.commons.annotations.RequiresAccessToken;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
 import com.example.DevOpsProj.dto.responseDto.UserNamesDTO;
-import com.example.DevOpsProj.service.JwtService;
 import com.example.DevOpsProj.service.UserNamesService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -14,13 +15,13 @@ import org.yaml.snakeyaml.constructor.DuplicateKeyException;
 import java.util.List;
 
 @RestController
+@QueryBudget(6)
+@RequiresAccessToken
 @RequestMapping("/usernames")
 public class UserNamesController {
 
     @Autowired
     private final UserNamesService userNamesService;
-    @Autowired
-    private JwtService jwtService;
 
     @Autowired
     public UserNamesController(UserNamesService userNamesService) {
@@ -28,34 +29,23 @@ public class UserNamesController {
     }
 
     @PostMapping("/githubUsername")
-    public ResponseEntity<Object> saveUsername(@RequestBody UserNamesDTO userNamesDTO,
-                                               @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            try{
-                UserNamesDTO savedUserNames = userNamesService.saveUsername(userNamesDTO);
-                if (savedUserNames == null){
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Github user not found");
-                }
-                else {
-                    return ResponseEntity.status(HttpStatus.CREATED).body(savedUserNames);
-                }
-            }catch (DataIntegrityViolationException e){
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Username already exists");
+    public ResponseEntity<Object> saveUsername(@RequestBody UserNamesDTO userNamesDTO) {
+        try{
+            UserNamesDTO savedUserNames = userNamesService.saveUsername(userNamesDTO);
+            if (savedUserNames == null){
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Github user not found");
+            }
+            else {
+                return ResponseEntity.status(HttpStatus.CREATED).body(savedUserNames);
             }
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
+        }catch (DataIntegrityViolationException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username already exists");
         }
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<Object> getUserNamesByRole(@PathVariable String role, @RequestHeader("AccessToken") String accessToken) {
-        boolean isTokenValid = jwtService.isTokenTrue(accessToken);
-        if (isTokenValid) {
-            EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
-            return ResponseEntity.ok(userNamesService.getGitHubUserNamesByRole(enumRole));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid Token");
-        }
+    public ResponseEntity<Object> getUserNamesByRole(@PathVariable String role) {
+        EnumRole enumRole = EnumRole.valueOf(role.toUpperCase());
+        return ResponseEntity.ok(userNamesService.getGitHubUserNamesByRole(enumRole));
     }
 }
@@ -0,0 +1,16 @@
+package com.example.DevOpsProj.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//access request with the user and project names joined in, read straight from the query without loading entities
+@Getter
+@AllArgsConstructor
+public class AccessRequestView {
+    private Long accessRequestId;
+    private String pmName;
+    private String userName;
+    private String projectName;
+    private String requestDescription;
+    private boolean allowed;
+}
@@ -0,0 +1,13 @@
+package com.example.DevOpsProj.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//help document row without the blob, the data is streamed separately when it is actually written out
+@Getter
+@AllArgsConstructor
+public class HelpDocumentMetadata {
+    private Long helpDocumentId;
+    private String fileName;
+    private String category;
+}
@@ -0,0 +1,13 @@
+package com.example.DevOpsProj.dto.projection;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//one row of a GROUP BY role count, role is null for users that never got one
+@Getter
+@AllArgsConstructor
+public class RoleCount {
+    private EnumRole role;
+    private Long count;
+}
@@ -0,0 +1,18 @@
+package com.example.DevOpsProj.dto.projection;
+
+import com.example.DevOpsProj.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//user and revocation state of a token, loaded together in a single query
+@Getter
+@AllArgsConstructor
+public class TokenAuthentication {
+    private User user;
+    private boolean revoked;
+    private boolean expired;
+
+    public boolean isActive() {
+        return !revoked && !expired;
+    }
+}
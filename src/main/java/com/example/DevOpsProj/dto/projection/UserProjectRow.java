@@ -0,0 +1,13 @@
+package com.example.DevOpsProj.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//one user/project pair from the project_user join, projectName is null for users without projects
+@Getter
+@AllArgsConstructor
+public class UserProjectRow {
+    private Long userId;
+    private String userName;
+    private String projectName;
+}
@@ -0,0 +1,22 @@
+package com.example.DevOpsProj.dto.responseDto;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class DashboardStatsDTO {
+    private long totalUsers;
+    private Map<EnumRole, Long> usersByRole;
+    private long activeProjects;
+    private long inactiveProjects;
+    //project memberships of active projects per user role, same figure as /api/projects/count/role/{role}
+    private Map<EnumRole, Long> projectsByRole;
+    private Instant reconciledAt;
+}
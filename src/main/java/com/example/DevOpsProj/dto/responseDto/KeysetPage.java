@@ -0,0 +1,40 @@
+package com.example.DevOpsProj.dto.responseDto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+//one page of a keyset (cursor) listing. Pass nextCursor back as "after" to get the next page,
+//it is null on the last page. totalCount is only filled when the caller asked for it
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+    private Long totalCount;
+
+    //rows must be fetched with limit + 1 so we can tell whether another page exists
+    public static <E, T> KeysetPage<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper, Long totalCount) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        List<T> items = new ArrayList<>(pageRows.size());
+        for (E row : pageRows) {
+            items.add(mapper.apply(row));
+        }
+        Long nextCursor = hasMore ? idOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new KeysetPage<>(items, nextCursor, totalCount);
+    }
+
+    public static int clampLimit(Integer limit) {
+        return limit != null ? Math.min(limit, MAX_LIMIT) : DEFAULT_LIMIT;
+    }
+}
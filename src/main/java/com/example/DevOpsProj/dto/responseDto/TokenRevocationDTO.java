@@ -0,0 +1,13 @@
+package com.example.DevOpsProj.dto.responseDto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TokenRevocationDTO {
+    private String scope;
+    private int revokedCount;
+}
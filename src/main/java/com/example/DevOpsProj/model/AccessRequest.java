@@ -10,6 +10,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(name = "access_request", indexes = {
+        @Index(name = "idx_access_request_updated", columnList = "updated")
+})
 public class AccessRequest {
 
     @Id
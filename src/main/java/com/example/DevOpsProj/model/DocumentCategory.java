@@ -13,7 +13,8 @@ import lombok.*;
 public class DocumentCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_category_seq")
+    @SequenceGenerator(name = "document_category_seq", sequenceName = "document_category_seq", allocationSize = 50)
     @Column(name = "category_id")
     private Long id;
 
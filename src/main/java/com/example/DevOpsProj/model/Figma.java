@@ -1,10 +1,13 @@
 package com.example.DevOpsProj.model;
 
+import com.example.DevOpsProj.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 //
 //import java.io.IOException;
 //import java.sql.Blob;
@@ -16,6 +19,8 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FIGMA)
 @Table(name = "figma")
 public class Figma {
 
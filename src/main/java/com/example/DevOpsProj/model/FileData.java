@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.sql.Blob;
+
 @Entity
 @Data
 @AllArgsConstructor
@@ -14,14 +16,26 @@ import lombok.NoArgsConstructor;
 public class FileData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_data_seq")
+    @SequenceGenerator(name = "file_data_seq", sequenceName = "file_data_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String type;
 
+    //deflate (zlib) compressed content, bound as a stream on insert so it is never held as one array
     @Lob
-    @Column(name = "file_data", length = 1000000)
-    private byte[] fileData;
+    @Column(name = "file_data", columnDefinition = "LONGBLOB")
+    private Blob fileData;
+
+    @Column(name = "original_size")
+    private Long originalSize;
+
+    @Column(name = "compressed_size")
+    private Long compressedSize;
+
+    //hex sha-256 of the uncompressed content
+    @Column(name = "checksum", columnDefinition = "CHAR(64)")
+    private String checksum;
 
 }
@@ -1,10 +1,13 @@
 package com.example.DevOpsProj.model;
 
+import com.example.DevOpsProj.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -13,7 +16,12 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "repositories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GIT_REPOSITORY)
+@Table(name = "repositories", indexes = {
+        @Index(name = "idx_repositories_repo_name", columnList = "repo_name"),
+        @Index(name = "idx_repositories_project_id", columnList = "project_id")
+})
 public class GitRepository {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -30,6 +38,7 @@ public class GitRepository {
     private Project project;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GIT_REPOSITORY_USERNAMES)
     @JoinTable(name = "repository_username",
             joinColumns = @JoinColumn(name = "repository_id"),
             inverseJoinColumns = @JoinColumn(name = "username_id"))
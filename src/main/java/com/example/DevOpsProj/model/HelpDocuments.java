@@ -9,11 +9,14 @@ import lombok.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "help_documents")
+@Table(name = "help_documents", indexes = {
+        @Index(name = "idx_help_documents_project_category", columnList = "project_id, category")
+})
 public class HelpDocuments {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "help_documents_seq")
+    @SequenceGenerator(name = "help_documents_seq", sequenceName = "help_documents_seq", allocationSize = 50)
     @Column(name = "help_document_id")
     private Long helpDocumentId;
 
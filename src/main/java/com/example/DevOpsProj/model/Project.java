@@ -1,11 +1,17 @@
 package com.example.DevOpsProj.model;
 
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.config.SoftDeleteFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
+import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,11 +22,20 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "project")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECT)
+@Filter(name = SoftDeleteFilter.NAME)
+@Table(name = "project", indexes = {
+        @Index(name = "idx_project_is_deleted", columnList = "is_deleted"),
+        @Index(name = "idx_project_name", columnList = "project_name"),
+        @Index(name = "idx_project_deleted_at", columnList = "deleted_at")
+})
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //pooled ids (a table on mysql) so inserts can be batched, identity columns turn batching off
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
     private Long projectId;
 
     @Column(name = "project_name", nullable = false)
@@ -30,6 +45,7 @@ public class Project {
     private String projectDescription;
 
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECT_REPOSITORIES)
     private List<GitRepository> repositories;
 
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL)
@@ -38,6 +54,10 @@ public class Project {
     @Column(name = "is_deleted")
     private Boolean deleted=false;
 
+    //set by the soft delete, the archival job moves the row out once this is old enough
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     @Column(nullable = false)
     @UpdateTimestamp
     private LocalDateTime lastUpdated=LocalDateTime.now();
@@ -46,9 +66,14 @@ public class Project {
     @JsonIgnore
     @ManyToMany
     @Cascade(org.hibernate.annotations.CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECT_USERS)
     @JoinTable(name = "project_user",
             joinColumns = @JoinColumn(name = "project_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id"))
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = {
+                    @Index(name = "idx_project_user_user_project", columnList = "user_id, project_id"),
+                    @Index(name = "idx_project_user_project_user", columnList = "project_id, user_id")
+            })
     private List<User> users; //change into list
 
     @OneToOne(mappedBy = "project")
@@ -7,18 +7,34 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(name = "token", indexes = {
+        @Index(name = "idx_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_token_revoked", columnList = "revoked"),
+        @Index(name = "idx_token_user_revoked", columnList = "user_id, revoked")
+})
 public class Token {
     @Id
     @GeneratedValue
     public Integer id;
 
-    @Column(unique = true)
-    public String token;
+    //sha-256 of the jwt, the raw token is never stored
+    @Column(name = "token_hash", unique = true, columnDefinition = "CHAR(64)")
+    public String tokenHash;
+
+    @Column(name = "issued_at")
+    public Instant issuedAt;
+
+    //rows are purged by this column, see TokenPurgeService
+    @Column(name = "expires_at")
+    public Instant expiresAt;
 
     @Enumerated(EnumType.STRING)
     public TokenType tokenType = TokenType.BEARER;
@@ -1,6 +1,8 @@
 package com.example.DevOpsProj.model;
 
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.config.SoftDeleteFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
@@ -8,11 +10,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -23,7 +29,17 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
+//soft-deleted users are hidden from entity queries for the whole web request, the filter is defined in package-info
+@Filter(name = SoftDeleteFilter.NAME)
+@Table(name = "user", indexes = {
+        @Index(name = "idx_user_enum_role", columnList = "enum_role"),
+        @Index(name = "idx_user_deleted_role", columnList = "is_deleted, enum_role"),
+        @Index(name = "idx_user_email", columnList = "email"),
+        @Index(name = "idx_user_name", columnList = "user_name"),
+        @Index(name = "idx_user_deleted_at", columnList = "deleted_at")
+})
 public class User implements UserDetails{
 
     // -- JWT -- public class User implements UserDetails
@@ -47,11 +63,16 @@ public class User implements UserDetails{
     private String password;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "enum_role")
     private EnumRole enumRole;
 
     @Column(name = "is_deleted")
     private Boolean deleted = false;
 
+    //set by the soft delete, the archival job moves the row out once this is old enough
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     public Boolean getDeleted() { //getter for deleted
         return deleted;
     }
@@ -63,6 +84,7 @@ public class User implements UserDetails{
     //linking project entity with user
     @JsonIgnore
     @ManyToMany(mappedBy = "users")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_PROJECTS)
     private List<Project> projects;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
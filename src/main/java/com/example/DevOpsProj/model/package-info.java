@@ -0,0 +1,7 @@
+//soft-deleted users and projects are hidden from entity queries for the whole web request, see SoftDeleteFilter.
+//Defined at package level so it is bound before any entity that uses it
+@FilterDef(name = SoftDeleteFilter.NAME, defaultCondition = "is_deleted = false")
+package com.example.DevOpsProj.model;
+
+import com.example.DevOpsProj.config.SoftDeleteFilter;
+import org.hibernate.annotations.FilterDef;
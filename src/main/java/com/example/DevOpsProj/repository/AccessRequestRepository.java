@@ -1,6 +1,8 @@
 package com.example.DevOpsProj.repository;
 
+import com.example.DevOpsProj.dto.projection.AccessRequestView;
 import com.example.DevOpsProj.model.AccessRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,4 +14,19 @@ public interface AccessRequestRepository extends JpaRepository<AccessRequest, Lo
 
     @Query("SELECT a FROM AccessRequest a WHERE a.updated=false")
     List<AccessRequest> findAllActiveRequests();
+
+    //read-only listing, only the columns the response needs
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.AccessRequestView(" +
+            "a.accessRequestId, a.pmName, u.name, p.projectName, a.requestDescription, a.allowed) " +
+            "FROM AccessRequest a LEFT JOIN a.user u LEFT JOIN a.project p WHERE a.updated=false")
+    List<AccessRequestView> findAllActiveRequestViews();
+
+    //keyset listing on the primary key, the user, project and the project's figma link
+    //are fetched in the same statement
+    @Query("SELECT a FROM AccessRequest a LEFT JOIN FETCH a.user LEFT JOIN FETCH a.project p LEFT JOIN FETCH p.figma " +
+            "WHERE a.updated=false AND a.accessRequestId > :after ORDER BY a.accessRequestId")
+    List<AccessRequest> findActiveRequestsAfter(Long after, Pageable pageable);
+
+    @Query("SELECT count(a) FROM AccessRequest a WHERE a.updated=false")
+    long countActiveRequests();
 }
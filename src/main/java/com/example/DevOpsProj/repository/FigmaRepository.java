@@ -1,9 +1,17 @@
 package com.example.DevOpsProj.repository;
 
 import com.example.DevOpsProj.model.Figma;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface FigmaRepository extends JpaRepository<Figma, Long> {
+
+    //keyset listing on the primary key, the project is fetched in the same statement
+    @Query("SELECT f FROM Figma f LEFT JOIN FETCH f.project WHERE f.figmaId > :after ORDER BY f.figmaId")
+    List<Figma> findFigmasAfter(Long after, Pageable pageable);
 }
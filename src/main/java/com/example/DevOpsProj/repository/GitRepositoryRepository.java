@@ -1,8 +1,10 @@
 package com.example.DevOpsProj.repository;
 
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
 import com.example.DevOpsProj.model.GitRepository;
 import com.example.DevOpsProj.model.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,12 +19,28 @@ public interface GitRepositoryRepository extends JpaRepository<GitRepository, Lo
     @Query("SELECT r FROM GitRepository r WHERE r.project = :project")
     List<GitRepository> findRepositoriesByProject(@Param("project") Project project);
 
-    @Query("SELECT r FROM GitRepository r " +
+    //read-only listings straight into the response dto, the project and usernames are never fetched
+    @Query("SELECT new com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO(r.repoId, r.name, r.description) " +
+            "FROM GitRepository r")
+    List<GitRepositoryDTO> findAllRepositoryDTOs();
+
+    //one row per project member with the role, a repository can show up more than once
+    @Query("SELECT new com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO(r.repoId, r.name, r.description) " +
+            "FROM GitRepository r " +
             "JOIN r.project p " +
             "JOIN p.users u " +
             "WHERE u.enumRole = :enumRole")
-    List<GitRepository> findAllByRole(EnumRole enumRole);
+    List<GitRepositoryDTO> findRepositoryDTOsByRole(EnumRole enumRole);
 
     Optional<GitRepository> findByRepoId(Long repoId);
 
-}
\ No newline at end of file
+    //keyset listing on the primary key, the name filter is skipped when it is null. The eager
+    //project and its figma link are fetched in the same statement
+    @Query("SELECT r FROM GitRepository r LEFT JOIN FETCH r.project p LEFT JOIN FETCH p.figma WHERE r.repoId > :after " +
+            "AND (:namePattern IS NULL OR r.name LIKE :namePattern ESCAPE '!') " +
+            "ORDER BY r.repoId")
+    List<GitRepository> findRepositoriesAfter(Long after, String namePattern, Pageable pageable);
+
+    @Query("SELECT count(r) FROM GitRepository r WHERE (:namePattern IS NULL OR r.name LIKE :namePattern ESCAPE '!')")
+    long countRepositories(String namePattern);
+}
@@ -1,7 +1,21 @@
 package com.example.DevOpsProj.repository;
 
+import com.example.DevOpsProj.dto.projection.HelpDocumentMetadata;
 import com.example.DevOpsProj.model.HelpDocuments;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface HelpDocumentsRepository extends JpaRepository<HelpDocuments, Long> {
+
+    //metadata only, the data column is never selected here
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.HelpDocumentMetadata(h.helpDocumentId, h.fileName, h.category) " +
+            "FROM HelpDocuments h " +
+            "WHERE h.project.projectId = :projectId " +
+            "AND (:category IS NULL OR h.category = :category) " +
+            "ORDER BY h.helpDocumentId")
+    List<HelpDocumentMetadata> findMetadataByProject(@Param("projectId") Long projectId,
+                                                     @Param("category") String category);
 }
@@ -1,23 +1,37 @@
 package com.example.DevOpsProj.repository;
 
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.dto.projection.RoleCount;
+import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
-    @Query("SELECT p FROM Project p WHERE p.deleted=false")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECT_QUERIES)})
+    //figma is the inverse side of a one-to-one and can't be lazy, fetching it here avoids one query per project
+    @Query("SELECT p FROM Project p LEFT JOIN FETCH p.figma WHERE p.deleted=false")
     List<Project> findAllProjects();
 
+    @Query("SELECT p FROM Project p LEFT JOIN FETCH p.figma")
+    List<Project> findAllWithFigma();
+
 
     @Query("SELECT u FROM User u JOIN u.projects p WHERE p.id = :projectId")
     List<User> findAllUsersByProjectId(@Param("projectId") Long projectId);
@@ -26,20 +40,30 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT u FROM User u JOIN u.projects p WHERE p.projectId=?1 AND u.id=?2")
     List<User> existUserInProject(Long projectId, Long userId);
 
+    //bulk update, hibernate evicts the project region and invalidates the cached project queries on commit
     @Transactional
     @Modifying
-    @Query("UPDATE Project p SET p.deleted=true WHERE p.projectId=?1") //setting is_deleted to true
-    void softDeleteProject(Long id);
+    @Query("UPDATE Project p SET p.deleted=true, p.deletedAt=?2 WHERE p.projectId=?1") //setting is_deleted to true
+    void softDeleteProject(Long id, Instant deletedAt);
 
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECT_QUERIES)})
     @Query("SELECT count(p) FROM Project p WHERE p.deleted=false")
     Integer countAllProjects();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECT_QUERIES)})
     @Query("SELECT count(p) FROM Project p " +
             "JOIN p.users u WHERE u.enumRole = :role " +
             "AND p.deleted=false")
     Integer countAllProjectsByRole(EnumRole role);
 
+    //countAllProjectsByRole for every role in one scan of project_user
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.RoleCount(u.enumRole, count(p)) " +
+            "FROM Project p JOIN p.users u WHERE p.deleted=false GROUP BY u.enumRole")
+    List<RoleCount> countActiveProjectsGroupedByRole();
+
     @Query("SELECT count(p) FROM Project p JOIN p.users u WHERE u.id = :userId")
     Integer countAllProjectsByUserId(Long userId);
 
@@ -56,13 +80,43 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT count(u) FROM User u JOIN u.projects p WHERE p.id = :projectId")
     Integer countAllUsersByProjectId(Long projectId);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECT_QUERIES)})
     @Query("SELECT count(p) FROM Project p WHERE p.deleted=false")
     Integer countAllActiveProjects();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECT_QUERIES)})
     @Query("SELECT count(p) FROM Project p WHERE p.deleted=true")
     Integer countAllInActiveProjects();
 
+    //deleted projects the archival job already moved out of the project table
+    @Query(value = "SELECT count(*) FROM project_archive", nativeQuery = true)
+    long countArchivedProjects();
+
     @Query("SELECT u FROM Project p JOIN p.users u WHERE p.projectId = :projectId AND u.enumRole = :role AND u.deleted = false")
     List<User> findUsersByProjectIdAndRole(@Param("projectId") Long projectId, @Param("role") EnumRole role);
 
+    //keyset listing on the primary key, filters are skipped when their parameter is null
+    @Query("SELECT p FROM Project p LEFT JOIN FETCH p.figma WHERE p.projectId > :after " +
+            "AND (:deleted IS NULL OR p.deleted = :deleted) " +
+            "AND (:namePattern IS NULL OR p.projectName LIKE :namePattern ESCAPE '!') " +
+            "ORDER BY p.projectId")
+    List<Project> findProjectsAfter(Long after, Boolean deleted, String namePattern, Pageable pageable);
+
+    @Query("SELECT count(p) FROM Project p WHERE (:deleted IS NULL OR p.deleted = :deleted) " +
+            "AND (:namePattern IS NULL OR p.projectName LIKE :namePattern ESCAPE '!')")
+    long countProjects(Boolean deleted, String namePattern);
+
+    //anti-join on figma, active projects without a figma row (or without a url in it) straight into dtos
+    @Query("SELECT new com.example.DevOpsProj.dto.responseDto.ProjectDTO(p.projectId, p.projectName, p.projectDescription) " +
+            "FROM Project p LEFT JOIN p.figma f " +
+            "WHERE p.deleted=false AND p.projectId > :after " +
+            "AND (f.figmaId IS NULL OR f.figmaURL IS NULL) " +
+            "ORDER BY p.projectId")
+    List<ProjectDTO> findProjectsWithoutFigmaUrl(Long after, Pageable pageable);
+
+    @Query("SELECT count(p) FROM Project p LEFT JOIN p.figma f " +
+            "WHERE p.deleted=false AND (f.figmaId IS NULL OR f.figmaURL IS NULL)")
+    long countProjectsWithoutFigmaUrl();
 }
@@ -0,0 +1,25 @@
+package com.example.DevOpsProj.repository;
+
+import com.example.DevOpsProj.model.RevokedToken;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    @Query("SELECT r FROM RevokedToken r WHERE r.id > :watermark ORDER BY r.id")
+    List<RevokedToken> findRevokedSince(Long watermark, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM revoked_token WHERE expires_at < :cutoff OR expires_at IS NULL LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteExpiredRevocations(Instant cutoff, int batchSize);
+}
@@ -2,6 +2,7 @@ package com.example.DevOpsProj.repository;
 
 import com.example.DevOpsProj.model.FileData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +11,8 @@ import java.util.Optional;
 public interface StorageRepository extends JpaRepository<FileData, Long> {
 
     Optional<FileData> findFileById(Long fileId);
+
+    //only the type, loading the entity would also read the blob
+    @Query("SELECT f.type FROM FileData f WHERE f.id = :fileId")
+    Optional<String> findTypeById(Long fileId);
 }
@@ -1,8 +1,14 @@
 package com.example.DevOpsProj.repository;
 
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.projection.TokenAuthentication;
 import com.example.DevOpsProj.model.Token;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +19,53 @@ public interface TokenRepository extends JpaRepository<Token, Integer> {
       where u.id = :id and (t.expired = false or t.revoked = false)\s
       """)
     List<Token> findAllValidTokenByUser(Long id);
-    Optional<Token> findByToken(String token);
-}
\ No newline at end of file
+    Optional<Token> findByTokenHash(String tokenHash);
+
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.TokenAuthentication(u, t.revoked, t.expired) " +
+            "FROM Token t JOIN t.user u WHERE t.tokenHash = :tokenHash")
+    Optional<TokenAuthentication> findAuthenticationByTokenHash(String tokenHash);
+
+    //bounded delete, walks idx_token_expires_at / idx_token_revoked instead of scanning the table
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM token WHERE expires_at < :cutoff OR expires_at IS NULL OR revoked = true LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteInactiveTokens(Instant cutoff, int batchSize);
+
+    //set-based revocation, see TokenRevocationService. Each scope has a log insert, which has to run
+    //first while the rows are still unrevoked, and a single UPDATE for the token table
+    @Modifying
+    @Query("INSERT INTO RevokedToken (tokenHash, expiresAt, revokedAt) " +
+            "SELECT t.tokenHash, t.expiresAt, :now FROM Token t " +
+            "WHERE t.revoked = false AND (t.expiresAt IS NULL OR t.expiresAt > :now) AND t.user.id IN :userIds")
+    int logRevocationsByUsers(Collection<Long> userIds, Instant now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true WHERE t.revoked = false AND t.user.id IN :userIds")
+    int revokeByUsers(Collection<Long> userIds);
+
+    @Modifying
+    @Query("INSERT INTO RevokedToken (tokenHash, expiresAt, revokedAt) " +
+            "SELECT t.tokenHash, t.expiresAt, :now FROM Token t " +
+            "WHERE t.revoked = false AND (t.expiresAt IS NULL OR t.expiresAt > :now) " +
+            "AND t.user.id IN (SELECT u.id FROM User u WHERE u.enumRole = :role)")
+    int logRevocationsByRole(EnumRole role, Instant now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true WHERE t.revoked = false " +
+            "AND t.user.id IN (SELECT u.id FROM User u WHERE u.enumRole = :role)")
+    int revokeByRole(EnumRole role);
+
+    //rows written before issued_at existed have no issue time and are treated as old
+    @Modifying
+    @Query("INSERT INTO RevokedToken (tokenHash, expiresAt, revokedAt) " +
+            "SELECT t.tokenHash, t.expiresAt, :now FROM Token t " +
+            "WHERE t.revoked = false AND (t.expiresAt IS NULL OR t.expiresAt > :now) " +
+            "AND (t.issuedAt IS NULL OR t.issuedAt < :issuedBefore)")
+    int logRevocationsIssuedBefore(Instant issuedBefore, Instant now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true WHERE t.revoked = false " +
+            "AND (t.issuedAt IS NULL OR t.issuedAt < :issuedBefore)")
+    int revokeIssuedBefore(Instant issuedBefore);
+}
@@ -1,37 +1,64 @@
 package com.example.DevOpsProj.repository;
 
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.dto.projection.RoleCount;
+import com.example.DevOpsProj.dto.projection.UserProjectRow;
+import com.example.DevOpsProj.dto.responseDto.UserDTO;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    //bulk update, hibernate evicts the user region and invalidates the cached user queries on commit
     @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.deleted = true WHERE u.id=?1")
-    void softDelete(Long id);
+    @Query("UPDATE User u SET u.deleted = true, u.deletedAt = ?2 WHERE u.id=?1")
+    void softDelete(Long id, Instant deletedAt);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)})
     @Query("SELECT u FROM User u WHERE u.enumRole=?1 AND u.deleted=false")
     List<User> findByRole(EnumRole enumRole);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)})
     public User findByEmail(String email);
 
+    //read-only listing straight into the response dto, no managed entities or associations
+    @Query("SELECT new com.example.DevOpsProj.dto.responseDto.UserDTO(u.id, u.name, u.email, u.enumRole) FROM User u")
+    List<UserDTO> findAllUserDTOs();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)})
     @Query("SELECT count(u) FROM User u WHERE u.deleted=false")
     Integer countAllUsers();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)})
     @Query("SELECT count(u) FROM User u WHERE u.deleted=false AND u.enumRole=?1")
     Integer countAllUsersByRole(EnumRole role);
 
+    //every per-role user count of the dashboard in one scan
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.RoleCount(u.enumRole, count(u)) " +
+            "FROM User u WHERE u.deleted=false GROUP BY u.enumRole")
+    List<RoleCount> countActiveUsersGroupedByRole();
+
     @Query("SELECT count(u) FROM User u " +
             "JOIN u.projects p WHERE p.id = :projectId " +
             "AND u.deleted=false")
@@ -46,6 +73,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :email")
     User existsByEmail(String email);
 
-    @Query("SELECT t.user FROM Token t WHERE t.token = :tokenValue")
-    User findUserByToken(@Param("tokenValue") String tokenValue);
+    @Query("SELECT t.user FROM Token t WHERE t.tokenHash = :tokenHash")
+    User findUserByToken(@Param("tokenHash") String tokenHash);
+
+    @Query("SELECT t.user FROM Token t WHERE t.tokenHash = :tokenHash AND t.revoked = false AND t.expired = false")
+    User findUserByActiveToken(@Param("tokenHash") String tokenHash);
+
+    //users with their project names as flat rows, one statement instead of a lazy load per user
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.UserProjectRow(u.id, u.name, p.projectName) " +
+            "FROM User u LEFT JOIN u.projects p ORDER BY u.id")
+    List<UserProjectRow> findAllUserProjectRows();
+
+    //paging is done on user ids first so a page never cuts through one user's projects
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findUserIds(Pageable pageable);
+
+    @Query("SELECT new com.example.DevOpsProj.dto.projection.UserProjectRow(u.id, u.name, p.projectName) " +
+            "FROM User u LEFT JOIN u.projects p WHERE u.id IN :userIds ORDER BY u.id")
+    List<UserProjectRow> findUserProjectRows(List<Long> userIds);
+
+    //grouped on the project_user join, only the ids of matching users leave the database
+    @Query("SELECT u.id FROM User u JOIN u.projects p " +
+            "WHERE (:role IS NULL OR u.enumRole = :role) " +
+            "GROUP BY u.id HAVING COUNT(p) > 1 ORDER BY u.id")
+    List<Long> findUserIdsWithMultipleProjects(EnumRole role, Pageable pageable);
+
+    //keyset listing on the primary key, filters are skipped when their parameter is null
+    @Query("SELECT u FROM User u WHERE u.id > :after " +
+            "AND (:role IS NULL OR u.enumRole = :role) " +
+            "AND (:deleted IS NULL OR u.deleted = :deleted) " +
+            "AND (:namePattern IS NULL OR u.name LIKE :namePattern ESCAPE '!') " +
+            "ORDER BY u.id")
+    List<User> findUsersAfter(Long after, EnumRole role, Boolean deleted, String namePattern, Pageable pageable);
+
+    @Query("SELECT count(u) FROM User u WHERE (:role IS NULL OR u.enumRole = :role) " +
+            "AND (:deleted IS NULL OR u.deleted = :deleted) " +
+            "AND (:namePattern IS NULL OR u.name LIKE :namePattern ESCAPE '!')")
+    long countUsers(EnumRole role, Boolean deleted, String namePattern);
 }
@@ -1,15 +1,19 @@
 package com.example.DevOpsProj.service;
 
+import com.example.DevOpsProj.Mapper.AccessRequestMapper;
+import com.example.DevOpsProj.commons.annotations.ReplicaRead;
+import com.example.DevOpsProj.dto.projection.AccessRequestView;
 import com.example.DevOpsProj.dto.requestDto.AccessRequestDTO;
 import com.example.DevOpsProj.dto.responseDto.AccessResponseDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.dto.responseDto.UserDTO;
 import com.example.DevOpsProj.model.AccessRequest;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.AccessRequestRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -24,7 +28,7 @@ public class AccessRequestService {
     private AccessRequestRepository accessRequestRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private AccessRequestMapper accessRequestMapper;
 
     public AccessRequestDTO createRequest(AccessRequestDTO accessRequestDTO){
         AccessRequest accessRequest = new AccessRequest();
@@ -33,30 +37,52 @@ public class AccessRequestService {
         accessRequest.setUser(mapUserDTOToUser(accessRequestDTO.getUser()));
         accessRequest.setProject(mapProjectDTOToProject(accessRequestDTO.getProject()));
         accessRequestRepository.save(accessRequest);
-        return modelMapper.map(accessRequest, AccessRequestDTO.class);
+        return accessRequestMapper.toDTO(accessRequest);
     }
 
+    @ReplicaRead
     public List<AccessRequestDTO> getAllRequests() {
-        List<AccessRequest> accessRequestList = accessRequestRepository.findAllActiveRequests();
+        List<AccessRequestView> accessRequestList = accessRequestRepository.findAllActiveRequestViews();
         if (accessRequestList.isEmpty()){
             return null;
         }
         List<AccessRequestDTO> accessRequestDTOList = new ArrayList<>();
 
-        for (AccessRequest accessRequest : accessRequestList) {
-            AccessRequestDTO accessRequestDTO = new AccessRequestDTO();
-            accessRequestDTO.setAccessRequestId(accessRequest.getAccessRequestId());
-            accessRequestDTO.setPmName(accessRequest.getPmName());
-            accessRequestDTO.setUser(mapUserToUserDTO(accessRequest.getUser()));
-            accessRequestDTO.setProject(mapProjectToProjectDTO(accessRequest.getProject()));
-            accessRequestDTO.setRequestDescription(accessRequest.getRequestDescription());
-            accessRequestDTO.setAllowed(accessRequest.isAllowed());
-            accessRequestDTOList.add(accessRequestDTO);
+        for (AccessRequestView accessRequest : accessRequestList) {
+            accessRequestDTOList.add(toAccessRequestDTO(accessRequest));
         }
 
         return accessRequestDTOList;
     }
 
+    @ReplicaRead
+    public KeysetPage<AccessRequestDTO> getActiveRequestsPage(long after, int limit, boolean withCount) {
+        List<AccessRequest> accessRequests = accessRequestRepository.findActiveRequestsAfter(after, PageRequest.of(0, limit + 1));
+        Long totalCount = withCount ? accessRequestRepository.countActiveRequests() : null;
+        return KeysetPage.of(accessRequests, limit, AccessRequest::getAccessRequestId, this::toAccessRequestDTO, totalCount);
+    }
+
+    private AccessRequestDTO toAccessRequestDTO(AccessRequest accessRequest) {
+        AccessRequestDTO accessRequestDTO = new AccessRequestDTO();
+        accessRequestDTO.setAccessRequestId(accessRequest.getAccessRequestId());
+        accessRequestDTO.setPmName(accessRequest.getPmName());
+        accessRequestDTO.setUser(mapUserToUserDTO(accessRequest.getUser()));
+        accessRequestDTO.setProject(mapProjectToProjectDTO(accessRequest.getProject()));
+        accessRequestDTO.setRequestDescription(accessRequest.getRequestDescription());
+        accessRequestDTO.setAllowed(accessRequest.isAllowed());
+        return accessRequestDTO;
+    }
+
+
+    //same shape as the entity based mapping, the user and project only carry their names
+    private AccessRequestDTO toAccessRequestDTO(AccessRequestView accessRequest) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName(accessRequest.getUserName());
+        ProjectDTO projectDTO = new ProjectDTO();
+        projectDTO.setProjectName(accessRequest.getProjectName());
+        return new AccessRequestDTO(accessRequest.getAccessRequestId(), accessRequest.getPmName(), userDTO, projectDTO,
+                accessRequest.getRequestDescription(), accessRequest.isAllowed());
+    }
 
     public List<AccessResponseDTO> getUpdatedRequests(Long id, AccessRequestDTO accessRequestDTO){
         Optional<AccessRequest> optionalAccessRequest = accessRequestRepository.findById(id);
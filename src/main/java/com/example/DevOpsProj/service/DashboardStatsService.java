@@ -0,0 +1,175 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.SoftDeleteFilter;
+import com.example.DevOpsProj.dto.projection.RoleCount;
+import com.example.DevOpsProj.dto.responseDto.DashboardStatsDTO;
+import com.example.DevOpsProj.repository.ProjectRepository;
+import com.example.DevOpsProj.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//dashboard figures kept in memory and moved by the services that create or soft-delete users, projects and
+//memberships. The counters are rebuilt from the database on a schedule, which also repairs any drift from
+//writes that bypass the hooks (another node, role changes, manual sql)
+@Service
+public class DashboardStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final SoftDeleteFilter softDeleteFilter;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeProjects = new AtomicLong();
+    private final AtomicLong inactiveProjects = new AtomicLong();
+    //filled for every role up front, only the counters change afterwards
+    private final Map<EnumRole, AtomicLong> usersByRole = new EnumMap<>(EnumRole.class);
+    private final Map<EnumRole, AtomicLong> projectsByRole = new EnumMap<>(EnumRole.class);
+
+    //true until the first reconcile and after a change the hooks cannot express as a delta
+    private volatile boolean stale = true;
+    private volatile Instant reconciledAt;
+    //bumped by every delta hook. A reconcile only applies its counts when no hook ran since it started, the
+    //counts may or may not include such a change and applying them would lose or double it
+    private final AtomicLong version = new AtomicLong();
+    //hooks share the read side, applying a reconcile takes the write side so no delta lands in between
+    private final ReadWriteLock applyLock = new ReentrantReadWriteLock();
+
+    public DashboardStatsService(UserRepository userRepository, ProjectRepository projectRepository,
+                                 SoftDeleteFilter softDeleteFilter) {
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.softDeleteFilter = softDeleteFilter;
+        for (EnumRole role : EnumRole.values()) {
+            usersByRole.put(role, new AtomicLong());
+            projectsByRole.put(role, new AtomicLong());
+        }
+    }
+
+    public DashboardStatsDTO getStats() {
+        if (stale) {
+            reconcile();
+        }
+        return new DashboardStatsDTO(totalUsers.get(), snapshot(usersByRole), activeProjects.get(),
+                inactiveProjects.get(), snapshot(projectsByRole), reconciledAt);
+    }
+
+    public void userCreated(EnumRole role) {
+        applyDelta(() -> {
+            totalUsers.incrementAndGet();
+            add(usersByRole, role, 1);
+        });
+    }
+
+    public void userSoftDeleted(EnumRole role) {
+        applyDelta(() -> {
+            totalUsers.decrementAndGet();
+            add(usersByRole, role, -1);
+        });
+    }
+
+    //roles is one entry per member, may be empty
+    public void projectCreated(Collection<EnumRole> memberRoles) {
+        applyDelta(() -> {
+            activeProjects.incrementAndGet();
+            memberRoles.forEach(role -> add(projectsByRole, role, 1));
+        });
+    }
+
+    public void projectSoftDeleted(Collection<EnumRole> memberRoles) {
+        applyDelta(() -> {
+            activeProjects.decrementAndGet();
+            inactiveProjects.incrementAndGet();
+            memberRoles.forEach(role -> add(projectsByRole, role, -1));
+        });
+    }
+
+    public void memberAdded(EnumRole role) {
+        applyDelta(() -> add(projectsByRole, role, 1));
+    }
+
+    public void memberRemoved(EnumRole role) {
+        applyDelta(() -> add(projectsByRole, role, -1));
+    }
+
+    //for writes whose effect on the counters is not known, the next read recounts
+    public void markStale() {
+        stale = true;
+    }
+
+    //three grouped counts instead of one COUNT query per dashboard figure
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        //cleared first so a markStale while the counts run is kept
+        stale = false;
+        long startVersion = version.get();
+        List<RoleCount> users = userRepository.countActiveUsersGroupedByRole();
+        List<RoleCount> memberships = projectRepository.countActiveProjectsGroupedByRole();
+        long active = projectRepository.countAllActiveProjects();
+        //archived projects are still inactive ones, and the filter would hide the rest when called from a request
+        long inactive = softDeleteFilter.includingDeleted(() ->
+                projectRepository.countAllInActiveProjects() + projectRepository.countArchivedProjects());
+
+        applyLock.writeLock().lock();
+        try {
+            if (version.get() != startVersion) {
+                //a delta landed while counting, keep the delta-maintained values and recount on the next read
+                stale = true;
+                log.debug("Dashboard counters changed while reconciling, recounting on the next read");
+                return;
+            }
+            long total = 0;
+            usersByRole.values().forEach(counter -> counter.set(0));
+            for (RoleCount row : users) {
+                total += row.getCount();
+                add(usersByRole, row.getRole(), row.getCount());
+            }
+            projectsByRole.values().forEach(counter -> counter.set(0));
+            for (RoleCount row : memberships) {
+                add(projectsByRole, row.getRole(), row.getCount());
+            }
+            totalUsers.set(total);
+            activeProjects.set(active);
+            inactiveProjects.set(inactive);
+            reconciledAt = Instant.now();
+            log.debug("Dashboard counters reconciled: {} users, {} active projects", total, active);
+        } finally {
+            applyLock.writeLock().unlock();
+        }
+    }
+
+    private void applyDelta(Runnable delta) {
+        applyLock.readLock().lock();
+        try {
+            delta.run();
+            version.incrementAndGet();
+        } finally {
+            applyLock.readLock().unlock();
+        }
+    }
+
+    private static void add(Map<EnumRole, AtomicLong> counters, EnumRole role, long delta) {
+        if (role != null) {
+            counters.get(role).addAndGet(delta);
+        }
+    }
+
+    private static Map<EnumRole, Long> snapshot(Map<EnumRole, AtomicLong> counters) {
+        Map<EnumRole, Long> values = new EnumMap<>(EnumRole.class);
+        counters.forEach((role, counter) -> values.put(role, counter.get()));
+        return values;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.DevOpsProj.service;
 
 import com.example.DevOpsProj.dto.responseDto.FigmaDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.model.Figma;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.repository.FigmaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -28,6 +30,14 @@ public class FigmaService {
         return figmaRepository.findAll();
     }
 
+    public KeysetPage<FigmaDTO> getFigmasPage(long after, int limit, boolean withCount) {
+        List<Figma> figmas = figmaRepository.findFigmasAfter(after, PageRequest.of(0, limit + 1));
+        Long totalCount = withCount ? figmaRepository.count() : null;
+        return KeysetPage.of(figmas, limit, Figma::getFigmaId,
+                figma -> new FigmaDTO(figma.getFigmaId(), mapProjectToProjectDTO(figma.getProject()), figma.getFigmaURL()),
+                totalCount);
+    }
+
     public Optional<FigmaDTO> getFigmaById(Long figmaId) {
         Optional<Figma> optionalFigma = figmaRepository.findById(figmaId);
         return optionalFigma.map(figma -> new FigmaDTO(mapProjectToProjectDTO(figma.getProject()), figma.getFigmaURL()));
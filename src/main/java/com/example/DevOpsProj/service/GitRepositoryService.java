@@ -2,13 +2,16 @@ package com.example.DevOpsProj.service;
 
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
 import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.model.GitRepository;
 import com.example.DevOpsProj.model.Project;
 //import com.example.DevOpsProj.model.RepositoryEntity;
 import com.example.DevOpsProj.repository.GitRepositoryRepository;
+import com.example.DevOpsProj.utils.QueryUtils;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.stereotype.Service;
@@ -74,13 +77,15 @@ public class GitRepositoryService {
     }
     @Transactional(readOnly = true)
     public List<GitRepositoryDTO> getAllRepositories() {
-        List<GitRepository> gitRepositories = gitRepositoryRepository.findAll();
-
-        List<GitRepositoryDTO> gitRepositoriesDTO = gitRepositories.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return gitRepositoryRepository.findAllRepositoryDTOs();
+    }
 
-        return gitRepositoriesDTO;
+    @Transactional(readOnly = true)
+    public KeysetPage<GitRepositoryDTO> getRepositoriesPage(long after, int limit, String namePrefix, boolean withCount) {
+        String namePattern = QueryUtils.likePrefix(namePrefix);
+        List<GitRepository> gitRepositories = gitRepositoryRepository.findRepositoriesAfter(after, namePattern, PageRequest.of(0, limit + 1));
+        Long totalCount = withCount ? gitRepositoryRepository.countRepositories(namePattern) : null;
+        return KeysetPage.of(gitRepositories, limit, GitRepository::getRepoId, this::convertToDto, totalCount);
     }
 
     @Transactional
@@ -135,12 +140,9 @@ public class GitRepositoryService {
         return gitRepositoryDTO;
     }
 
+    @Transactional(readOnly = true)
     public List<GitRepositoryDTO> getAllReposByRole(EnumRole enumRole) {
-        List<GitRepository> gitRepositories = gitRepositoryRepository.findAllByRole(enumRole);
-        List<GitRepositoryDTO> gitRepositoryDTOS = gitRepositories.stream()
-                .map(repository -> new GitRepositoryDTO(repository.getRepoId(), repository.getName(), repository.getDescription()))
-                .collect(Collectors.toList());
-        return gitRepositoryDTOS;
+        return gitRepositoryRepository.findRepositoryDTOsByRole(enumRole);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,200 @@
+package com.example.DevOpsProj.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+//verifies Google sign-in id tokens against a key set kept in memory by kid, so a login is a local
+//signature check. The key set is loaded in the background once the application is up and afterwards
+//only when a token names a kid we have not seen yet. Without google.client-id every token is rejected,
+//otherwise a token Google issued to any other app would be accepted here
+@Service
+public class GoogleIdTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleIdTokenVerifier.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String jwksLocation;
+    private final Duration minRefreshInterval;
+    private final long refreshWaitMs;
+    private final String clientId;
+    private final JWTVerifier verifier;
+    //reloads block on the network, so they get their own thread instead of the common pool
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //kid -> key, replaced as a whole on every reload
+    private volatile Map<String, RSAPublicKey> keys = Map.of();
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    //shared by every caller that hits an unknown kid while a reload is running
+    private CompletableFuture<Void> refreshInFlight;
+
+    public GoogleIdTokenVerifier(ResourceLoader resourceLoader,
+                                 @Value("${google.jwks.location:https://www.googleapis.com/oauth2/v3/certs}") String jwksLocation,
+                                 @Value("${google.jwks.min-refresh-interval-ms:60000}") long minRefreshIntervalMs,
+                                 @Value("${google.jwks.refresh-wait-ms:2000}") long refreshWaitMs,
+                                 @Value("${google.client-id:}") String clientId) {
+        this.resourceLoader = resourceLoader;
+        this.jwksLocation = jwksLocation;
+        this.minRefreshInterval = Duration.ofMillis(minRefreshIntervalMs);
+        this.refreshWaitMs = refreshWaitMs;
+        this.clientId = clientId;
+        this.verifier = JWT.require(Algorithm.RSA256(new CachedKeyProvider()))
+                .withIssuer("accounts.google.com", "https://accounts.google.com")
+                .withAudience(clientId)
+                .build();
+        if (clientId.isBlank()) {
+            log.error("google.client-id is not set, every Google sign-in will be rejected");
+        }
+    }
+
+    //first load off the startup path, a login that comes in before it finishes waits for the same reload
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadKeysInBackground() {
+        startRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    //throws JWTVerificationException when the signature, issuer, audience, exp or email_verified do not check out
+    public DecodedJWT verify(String idToken) {
+        if (clientId.isBlank()) {
+            throw new JWTVerificationException("google.client-id is not configured");
+        }
+        DecodedJWT decoded = verifier.verify(idToken);
+        Claim emailVerified = decoded.getClaim("email_verified");
+        //google sends a boolean, older tokens carried the string "true"
+        if (!Boolean.TRUE.equals(emailVerified.asBoolean()) && !"true".equals(emailVerified.asString())) {
+            throw new InvalidClaimException("The email of this Google account is not verified");
+        }
+        return decoded;
+    }
+
+    public String verifyAndGetEmail(String idToken) {
+        return verify(idToken).getClaim("email").asString();
+    }
+
+    private RSAPublicKey getKey(String kid) {
+        RSAPublicKey key = keys.get(kid);
+        if (key == null && kid != null) {
+            awaitRefresh();
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    private void awaitRefresh() {
+        CompletableFuture<Void> refresh = startRefresh();
+        if (refresh == null) {
+            return;
+        }
+        try {
+            refresh.get(refreshWaitMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Google signing key reload did not finish in time", e);
+        }
+    }
+
+    //null when a reload just happened, unknown kids inside that window are treated as forged
+    private synchronized CompletableFuture<Void> startRefresh() {
+        if (refreshInFlight == null) {
+            if (Duration.between(lastRefresh, Instant.now()).compareTo(minRefreshInterval) < 0) {
+                return null;
+            }
+            refreshInFlight = CompletableFuture.runAsync(this::reload, refreshExecutor);
+        }
+        return refreshInFlight;
+    }
+
+    private void reload() {
+        try {
+            keys = loadKeys();
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Could not reload Google signing keys from {}", jwksLocation, e);
+        } finally {
+            synchronized (this) {
+                lastRefresh = Instant.now();
+                refreshInFlight = null;
+            }
+        }
+    }
+
+    private Map<String, RSAPublicKey> loadKeys() throws IOException, GeneralSecurityException {
+        JsonNode jwks;
+        try (InputStream inputStream = resourceLoader.getResource(jwksLocation).getInputStream()) {
+            jwks = objectMapper.readTree(inputStream);
+        }
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        Map<String, RSAPublicKey> loaded = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText())) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, decoder.decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, decoder.decode(jwk.path("e").asText()));
+            RSAPublicKey key = (RSAPublicKey) keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent));
+            loaded.put(jwk.path("kid").asText(), key);
+        }
+        log.info("Loaded {} Google signing keys", loaded.size());
+        return Map.copyOf(loaded);
+    }
+
+    private class CachedKeyProvider implements RSAKeyProvider {
+        @Override
+        public RSAPublicKey getPublicKeyById(String keyId) {
+            return getKey(keyId);
+        }
+
+        //verification only
+        @Override
+        public RSAPrivateKey getPrivateKey() {
+            return null;
+        }
+
+        @Override
+        public String getPrivateKeyId() {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.DevOpsProj.service;
 
+import com.example.DevOpsProj.dto.projection.HelpDocumentMetadata;
 import com.example.DevOpsProj.model.HelpDocuments;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.repository.HelpDocumentsRepository;
 import com.example.DevOpsProj.repository.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.DataTruncation;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 public class HelpDocumentsService {
@@ -21,6 +29,8 @@ public class HelpDocumentsService {
     private HelpDocumentsRepository helpDocumentsRepository;
     @Autowired
     private ProjectService projectService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     public ResponseEntity<?> uploadFiles(long projectId, MultipartFile projectFile) throws IOException {
         Project project = projectRepository.findById(projectId)
@@ -38,4 +48,50 @@ public class HelpDocumentsService {
             helpDocuments.setData(file.getBytes());
         }
     }
-}
\ No newline at end of file
+
+    //category is optional, null returns every document of the project
+    public List<HelpDocumentMetadata> getDocumentMetadata(long projectId, String category) {
+        return helpDocumentsRepository.findMetadataByProject(projectId, category);
+    }
+
+    //writes one zip entry per document, each blob is read straight from the result set
+    //while its entry is open so only one document is held at a time
+    public void writeZip(List<HelpDocumentMetadata> documents, ZipOutputStream zipOut) throws IOException {
+        byte[] buffer = new byte[4096];
+        for (HelpDocumentMetadata document : documents) {
+            if (document.getFileName() == null) {
+                //uploaded without a file, nothing to put in the archive
+                continue;
+            }
+            zipOut.putNextEntry(new ZipEntry(document.getFileName()));
+            try {
+                jdbcTemplate.query("SELECT data FROM help_documents WHERE help_document_id = ?",
+                        (ResultSetExtractor<Void>) rs -> {
+                            if (rs.next()) {
+                                copy(rs.getBinaryStream(1), zipOut, buffer);
+                            }
+                            return null;
+                        },
+                        document.getHelpDocumentId());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            zipOut.closeEntry();
+        }
+        zipOut.finish();
+    }
+
+    private static void copy(InputStream inputStream, ZipOutputStream zipOut, byte[] buffer) {
+        if (inputStream == null) {
+            return;
+        }
+        try (inputStream) {
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                zipOut.write(buffer, 0, bytesRead);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
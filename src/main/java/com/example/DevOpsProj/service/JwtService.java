@@ -1,25 +1,86 @@
 package com.example.DevOpsProj.service;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
 import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.utils.TokenHashUtils;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 @Service
 public class JwtService {
+    //carried in every token so stateless validation can build the same User principal as the database path
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
     @Autowired
     private UserRepository userRepository;
-    private static final String SECRET_KEY = "59703273357638792F423F4528482B4D6251655468576D5A7134743677397A24432646294A404E635266556A586E327235753878214125442A472D4B61506453";
+    @Autowired
+    private TokenCacheService tokenCacheService;
+    @Autowired
+    private RevocationListService revocationListService;
+
+    private final SigningKeyRing signingKeyRing;
+    //built once for the life of the bean instead of on every parse
+    private final JwtParser jwtParser;
+    private final Counter parseFailures;
+    private final Counter expirations;
+
+    public JwtService(MeterRegistry meterRegistry, SigningKeyRing signingKeyRing) {
+        this.signingKeyRing = signingKeyRing;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        //O(1) lookup by the kid header, unknown or retired kids fail verification
+                        Key key = signingKeyRing.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.parseFailures = Counter.builder("jwt.verification.failures")
+                .description("Tokens rejected because they could not be parsed or verified")
+                .register(meterRegistry);
+        this.expirations = Counter.builder("jwt.verification.expired")
+                .description("Tokens rejected because they were expired")
+                .register(meterRegistry);
+    }
+
+    //parses and verifies the token exactly once, returns null if it cannot be trusted
+    public VerifiedClaims verify(String token) {
+        try {
+            return new VerifiedClaims(jwtParser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException e) {
+            expirations.increment();
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            parseFailures.increment();
+            return null;
+        }
+    }
+
     public String extractUsername(String token) {
         Claims claims = extractAllClaims(token);
         return claims.getSubject();
@@ -31,52 +92,91 @@ public class JwtService {
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
-    //change it
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        Key signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        SigningKeyRing.SigningKey signingKey = signingKeyRing.getActiveKey();
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            if (user.getEnumRole() != null) {
+                claims.put(ROLE_CLAIM, user.getEnumRole().name());
+            }
+        }
         return Jwts.builder()
-                .setClaims(extraClaims)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .signWith(signingKey.getKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
     public boolean isTokenTrue(String token) {
-        User user = userRepository.findUserByToken(token);
+        final String tokenHash = TokenHashUtils.sha256(token);
+        if (revocationListService.isStateless() && revocationListService.isReady()) {
+            // Stateless mode, a valid signature that was not revoked is enough
+            return verify(token) != null && !revocationListService.isRevoked(tokenHash);
+        }
+        if (tokenCacheService.get(tokenHash) != null) {
+            // Token was already verified and has not been revoked since
+            return true;
+        }
+        User user = userRepository.findUserByActiveToken(tokenHash);
         if (user != null ) {
             // Token is valid
+            tokenCacheService.put(tokenHash, user.getId(), decodeExpiration(token));
             return true;
         }
         // Token is invalid
         return false;
     }
+    //the token owner as far as the verified claims tell, without a database call. Null for tokens issued
+    //before the id claim existed, those have to be checked against the token table
+    public User principalOf(VerifiedClaims claims) {
+        Object userId = claims.getClaims().get(USER_ID_CLAIM);
+        if (!(userId instanceof Number)) {
+            return null;
+        }
+        Object role = claims.getClaims().get(ROLE_CLAIM);
+        User user = new User();
+        user.setId(((Number) userId).longValue());
+        user.setName(claims.getSubject());
+        user.setEnumRole(role instanceof String roleName ? EnumRole.valueOf(roleName) : null);
+        return user;
+    }
+    //loads the owner of a token that already passed isTokenTrue, reusing the cached user id when present
+    public User getUserByToken(String token) {
+        final String tokenHash = TokenHashUtils.sha256(token);
+        TokenCacheService.CachedToken cachedToken = tokenCacheService.get(tokenHash);
+        if (cachedToken != null) {
+            return userRepository.findById(cachedToken.getUserId()).orElse(null);
+        }
+        return userRepository.findUserByActiveToken(tokenHash);
+    }
+    //the token row was found in the db, so reading exp without verifying the signature is enough here
+    private Instant decodeExpiration(String token) {
+        try {
+            return JWT.decode(token).getExpiresAtAsInstant();
+        } catch (JWTDecodeException e) {
+            return null;
+        }
+    }
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        User user = userRepository.findUserByToken(token);
-        if (user != null && username.equals(userDetails.getUsername()) && !isTokenExpired(token)) {
+        VerifiedClaims claims = verify(token);
+        User user = userRepository.findUserByToken(TokenHashUtils.sha256(token));
+        return claims != null && user != null && isTokenValid(claims, userDetails);
+    }
+    //checks already verified claims against a user that was loaded together with the token
+    public boolean isTokenValid(VerifiedClaims claims, UserDetails userDetails) {
+        if (userDetails != null && claims.getSubject().equals(userDetails.getUsername()) && !claims.isExpired()) {
             // Token is valid
             return true;
         }
         // Token is invalid
         return false;
     }
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
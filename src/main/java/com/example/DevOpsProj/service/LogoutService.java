@@ -1,6 +1,7 @@
 package com.example.DevOpsProj.service;
 
 import com.example.DevOpsProj.repository.TokenRepository;
+import com.example.DevOpsProj.utils.TokenHashUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,8 @@ import org.springframework.stereotype.Service;
 public class LogoutService implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final TokenCacheService tokenCacheService;
+    private final RevocationListService revocationListService;
     @Override
     public void logout(
             HttpServletRequest request,
@@ -26,12 +29,15 @@ public class LogoutService implements LogoutHandler {
             return;
         }
         jwt = authHeader.substring(7);
-        var storedToken = tokenRepository.findByToken(jwt)
+        final String tokenHash = TokenHashUtils.sha256(jwt);
+        var storedToken = tokenRepository.findByTokenHash(tokenHash)
                 .orElse(null);
         if (storedToken != null) {
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
             tokenRepository.save(storedToken);
+            tokenCacheService.invalidate(tokenHash);
+            revocationListService.revoke(tokenHash, storedToken.getExpiresAt());
             SecurityContextHolder.clearContext();
         }
     }
@@ -1,6 +1,12 @@
 package com.example.DevOpsProj.service;
 
+import com.example.DevOpsProj.Mapper.ProjectMapper;
+import com.example.DevOpsProj.Mapper.UserMapper;
+import com.example.DevOpsProj.commons.annotations.ReplicaRead;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.config.SoftDeleteFilter;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
 import com.example.DevOpsProj.model.Project;
@@ -9,15 +15,21 @@ import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.ProjectRepository;
 import com.example.DevOpsProj.repository.GitRepositoryRepository;
 import com.example.DevOpsProj.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.example.DevOpsProj.utils.QueryUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,11 +42,23 @@ public class ProjectService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private UserMapper userMapper;
 
     @Autowired
     private GitRepositoryRepository gitRepositoryRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
+
 
     //implementing DTO pattern for project for saving project
     public Project saveProject(ProjectDTO projectDTO){ //save project
@@ -44,10 +68,17 @@ public class ProjectService {
         project.setProjectDescription(projectDTO.getProjectDescription());
         project.setLastUpdated(LocalDateTime.now());
         List<User> users = projectDTO.getUsers().stream()
-                .map(userDTO -> modelMapper.map(userDTO, User.class))
+                .map(userMapper::copy)
                 .collect(Collectors.toList());
         project.setUsers(users);
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        evictUserProjects(users.stream().map(User::getId).toList());
+        if (projectDTO.getProjectId() == null) {
+            dashboardStatsService.projectCreated(users.stream().map(User::getEnumRole).toList());
+        } else {
+            dashboardStatsService.markStale();
+        }
+        return saved;
     }
 
 
@@ -58,21 +89,51 @@ public class ProjectService {
         project.setProjectDescription(projectDTO.getProjectDescription());
         project.setLastUpdated(LocalDateTime.now());
         projectRepository.save(project);
+        if (projectDTO.getProjectId() == null) {
+            dashboardStatsService.projectCreated(List.of());
+        } else {
+            dashboardStatsService.markStale();
+        }
 
-        return modelMapper.map(project, ProjectDTO.class);
+        return projectMapper.toDTO(project);
     }
 
     public Optional<Project> getProjectById(Long id){
         return projectRepository.findById(id);
     }
 
+    //every project with its deleted flag, so the soft-delete filter is lifted
     public List<Project> getAll(){
-        return projectRepository.findAll();
+        return softDeleteFilter.includingDeleted(projectRepository::findAllWithFigma);
     }
     public List<Project> getAllProjects(){
         return projectRepository.findAllProjects();
     }
 
+    //keyset page of projects, the caller decides how each project is rendered
+    @ReplicaRead
+    public KeysetPage<ProjectDTO> getProjectsPage(long after, int limit, Boolean deleted, String namePrefix, boolean withCount,
+                                                  Function<Project, ProjectDTO> mapper) {
+        String namePattern = QueryUtils.likePrefix(namePrefix);
+        //the deleted parameter decides which rows are listed, not the soft-delete filter
+        return softDeleteFilter.includingDeleted(() -> {
+            List<Project> projects = projectRepository.findProjectsAfter(after, deleted, namePattern, PageRequest.of(0, limit + 1));
+            Long totalCount = withCount ? projectRepository.countProjects(deleted, namePattern) : null;
+            return KeysetPage.of(projects, limit, Project::getProjectId, mapper, totalCount);
+        });
+    }
+
+    //User.projects is the inverse side of project_user, its cached entries have to be dropped by hand
+    //whenever a user joins or leaves a project
+    public void evictUserProjects(Collection<Long> userIds) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        for (Long userId : userIds) {
+            if (userId != null) {
+                cache.evictCollectionData(CacheRegions.USER_PROJECTS_ROLE, userId);
+            }
+        }
+    }
+
     public Project updateProject(Project updatedProject){
         return projectRepository.save(updatedProject);
     }
@@ -109,7 +170,14 @@ public class ProjectService {
     //soft deleting project
     public boolean softDeleteProject(Long id){
         try{
-            projectRepository.softDeleteProject(id);
+            boolean wasActive = projectRepository.findById(id).map(project -> !Boolean.TRUE.equals(project.getDeleted())).orElse(false);
+            List<EnumRole> memberRoles = wasActive
+                    ? projectRepository.findAllUsersByProjectId(id).stream().map(User::getEnumRole).toList()
+                    : List.of();
+            projectRepository.softDeleteProject(id, Instant.now());
+            if (wasActive) {
+                dashboardStatsService.projectSoftDeleted(memberRoles);
+            }
             return true;
         }catch (Exception e){
             return false;
@@ -131,51 +199,56 @@ public class ProjectService {
         }
     }
 
+    @ReplicaRead
     public Integer getCountAllProjects(){
         return projectRepository.countAllProjects();
     }
 
+    @ReplicaRead
     public Integer getCountAllProjectsByRole(EnumRole enumRole) {
         return projectRepository.countAllProjectsByRole(enumRole);
     }
 
+    @ReplicaRead
     public Integer getCountAllProjectsByUserId(Long id) {
         return projectRepository.countAllProjectsByUserId(id);
     }
 
+    @ReplicaRead
     public Integer getCountAllUsersByProjectId(Long projectId) {
         return projectRepository.countAllUsersByProjectId(projectId);
     }
 
+    @ReplicaRead
     public Integer getCountAllUsersByProjectIdAndRole(Long projectId, EnumRole enumRole) {
         return projectRepository.countAllUsersByProjectIdAndRole(projectId, enumRole);
     }
 
+    @ReplicaRead
     public Integer getCountAllActiveProjects(){
         return projectRepository.countAllActiveProjects();
     }
 
+    @ReplicaRead
     public Integer getCountAllInActiveProjects(){
-        return projectRepository.countAllInActiveProjects();
+        return softDeleteFilter.includingDeleted(() ->
+                projectRepository.countAllInActiveProjects() + (int) projectRepository.countArchivedProjects());
     }
 
     public List<User> getUsersByProjectIdAndRole(Long projectId, EnumRole role) {
         return projectRepository.findUsersByProjectIdAndRole(projectId, role);
     }
 
+    @ReplicaRead
     public List<ProjectDTO> getProjectsWithoutFigmaURL() {
-        List<Project> projects = projectRepository.findAllProjects();
-        List<ProjectDTO> projectDTOs = new ArrayList<>();
-
-        for (Project project : projects) {
-            // Check if the project has a Figma URL set
-            if (project.getFigma() == null || project.getFigma().getFigmaURL() == null) {
-                // Create a ProjectDTO and add it to the list
-                ProjectDTO projectDTO = mapProjectToProjectDTO(project);
-                projectDTOs.add(projectDTO);
-            }
-        }
-        return projectDTOs;
+        return projectRepository.findProjectsWithoutFigmaUrl(0L, Pageable.unpaged());
+    }
+
+    @ReplicaRead
+    public KeysetPage<ProjectDTO> getProjectsWithoutFigmaURLPage(long after, int limit, boolean withCount) {
+        List<ProjectDTO> projects = projectRepository.findProjectsWithoutFigmaUrl(after, PageRequest.of(0, limit + 1));
+        Long totalCount = withCount ? projectRepository.countProjectsWithoutFigmaUrl() : null;
+        return KeysetPage.of(projects, limit, ProjectDTO::getProjectId, Function.identity(), totalCount);
     }
 
     public ProjectDTO mapProjectToProjectDTO(Project project) {
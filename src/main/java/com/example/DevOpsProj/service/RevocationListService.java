@@ -0,0 +1,121 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.model.RevokedToken;
+import com.example.DevOpsProj.repository.RevokedTokenRepository;
+import com.example.DevOpsProj.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//in-memory copy of the revoked_token log. In stateless validation mode every node polls the log
+//and a token with a valid signature that is not in this list is accepted without a db lookup
+@Service
+public class RevocationListService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationListService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final boolean stateless;
+    private final int pollBatchSize;
+    private final long watermarkOverlap;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    //token hash -> exp of the token, entries are dropped once the token could not be used anyway
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean ready;
+    private long watermark;
+
+    public RevocationListService(RevokedTokenRepository revokedTokenRepository,
+                                 @Value("${token.validation.mode:database}") String validationMode,
+                                 @Value("${token.revocation.poll-batch-size:1000}") int pollBatchSize,
+                                 @Value("${token.revocation.watermark-overlap:100}") long watermarkOverlap,
+                                 @Value("${token.revocation.expected-size:100000}") long expectedRevocations,
+                                 @Value("${token.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.stateless = "stateless".equalsIgnoreCase(validationMode);
+        this.pollBatchSize = pollBatchSize;
+        this.watermarkOverlap = watermarkOverlap;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    //true once the first poll has loaded the log, callers fall back to the db until then
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return bloomFilter.mightContain(tokenHash) && revokedTokens.containsKey(tokenHash);
+    }
+
+    //appends to the shared log, other nodes pick it up on their next poll. In database mode the token
+    //table decides and the local list is neither read nor pruned, so nothing is kept in memory
+    public void revoke(String tokenHash, Instant expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenHash(tokenHash)
+                .expiresAt(expiresAt)
+                .revokedAt(Instant.now())
+                .build());
+        if (stateless) {
+            addLocally(tokenHash, expiresAt);
+        }
+    }
+
+    //ids are re-read a little behind the watermark because auto increment ids of
+    //concurrent inserts can become visible out of order
+    @Scheduled(fixedDelayString = "${token.revocation.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        if (!stateless) {
+            return;
+        }
+        long from = Math.max(0, watermark - watermarkOverlap);
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findRevokedSince(from, PageRequest.of(0, pollBatchSize));
+            for (RevokedToken revocation : batch) {
+                addLocally(revocation.getTokenHash(), revocation.getExpiresAt());
+                from = revocation.getId();
+            }
+        } while (batch.size() == pollBatchSize);
+        watermark = Math.max(watermark, from);
+        ready = true;
+    }
+
+    //a bloom filter cannot forget entries, so it is rebuilt from the live entries instead
+    @Scheduled(fixedDelayString = "${token.revocation.prune-interval-ms:60000}")
+    public synchronized void prune() {
+        if (!stateless) {
+            return;
+        }
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2L), falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        log.debug("Revocation list holds {} tokens", revokedTokens.size());
+    }
+
+    private synchronized void addLocally(String tokenHash, Instant expiresAt) {
+        if (tokenHash == null || (expiresAt != null && expiresAt.isBefore(Instant.now()))) {
+            return;
+        }
+        //tokens without an exp are kept until they are purged from the log
+        revokedTokens.put(tokenHash, expiresAt != null ? expiresAt : Instant.MAX);
+        bloomFilter.put(tokenHash);
+    }
+}
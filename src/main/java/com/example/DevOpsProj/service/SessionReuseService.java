@@ -0,0 +1,81 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.dto.projection.TokenAuthentication;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.repository.TokenRepository;
+import com.example.DevOpsProj.utils.TokenHashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+//a login that presents the token it got on a previous login gets that token back while it is still active,
+//instead of signing and inserting a new one. Reuse is per token, so every device keeps its own session and a
+//logout only ends the session it came from. Nothing is kept in memory, the raw token comes from the client
+@Service
+public class SessionReuseService {
+
+    private final JwtService jwtService;
+    private final TokenRepository tokenRepository;
+    private final RevocationListService revocationListService;
+    private final Duration minRemaining;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SessionReuseService(JwtService jwtService,
+                               TokenRepository tokenRepository,
+                               RevocationListService revocationListService,
+                               MeterRegistry meterRegistry,
+                               @Value("${token.session.min-remaining-seconds:300}") long minRemainingSeconds) {
+        this.jwtService = jwtService;
+        this.tokenRepository = tokenRepository;
+        this.revocationListService = revocationListService;
+        this.minRemaining = Duration.ofSeconds(minRemainingSeconds);
+        this.hits = Counter.builder("auth.session.reuse")
+                .tag("result", "hit")
+                .description("Logins answered with an already issued token")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.session.reuse")
+                .tag("result", "miss")
+                .description("Logins that had to mint and persist a new token")
+                .register(meterRegistry);
+    }
+
+    //returns the presented token if it is the user's, still active and not about to expire,
+    //null if a new one has to be minted
+    public String findReusableToken(Long userId, String presentedToken) {
+        if (presentedToken != null && !presentedToken.isBlank() && isReusable(userId, presentedToken)) {
+            hits.increment();
+            return presentedToken;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private boolean isReusable(Long userId, String token) {
+        VerifiedClaims claims = jwtService.verify(token);
+        if (claims == null || claims.getExpiresAt() == null
+                || claims.getExpiresAt().minus(minRemaining).isBefore(Instant.now())) {
+            return false;
+        }
+        //tokens issued before the id claim existed are not reused, the login mints a new one
+        User owner = jwtService.principalOf(claims);
+        if (owner == null || !owner.getId().equals(userId)) {
+            return false;
+        }
+        return isActive(TokenHashUtils.sha256(token));
+    }
+
+    //revocations can happen on another node, so the token state is checked on every reuse
+    private boolean isActive(String tokenHash) {
+        if (revocationListService.isStateless() && revocationListService.isReady()) {
+            return !revocationListService.isRevoked(tokenHash);
+        }
+        return tokenRepository.findAuthenticationByTokenHash(tokenHash)
+                .map(TokenAuthentication::isActive)
+                .orElse(false);
+    }
+}
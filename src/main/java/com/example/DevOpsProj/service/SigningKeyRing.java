@@ -0,0 +1,127 @@
+package com.example.DevOpsProj.service;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//jwt signing keys, decoded once at startup. The newest key whose activation time has passed signs new
+//tokens, older keys stay in the verification map for the overlap window so tokens signed with them live out their exp
+@Service
+public class SigningKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    public static final String LEGACY_KID = "default";
+    //the key every token was signed with before rotation existed
+    private static final String LEGACY_SECRET = "59703273357638792F423F4528482B4D6251655468576D5A7134743677397A24432646294A404E635266556A586E327235753878214125442A472D4B61506453";
+    //HS512 needs at least 512 bits of key material
+    private static final int MIN_KEY_BYTES = 64;
+
+    //sorted by activation time, never changes after construction
+    private final List<SigningKey> keys;
+    private final Duration overlap;
+
+    private volatile SigningKey activeKey;
+    //kid -> key, replaced as a whole on every refresh so lookups never lock
+    private volatile Map<String, Key> verificationKeys = Map.of();
+
+    //token.signing.keys is a comma separated list of kid:base64-secret[@activation-instant]
+    public SigningKeyRing(@Value("${token.signing.keys:}") String configuredKeys,
+                          @Value("${token.signing.overlap-minutes:60}") long overlapMinutes) {
+        List<SigningKey> loaded = new ArrayList<>();
+        loaded.add(decode(LEGACY_KID, LEGACY_SECRET, Instant.EPOCH));
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            loaded.add(parse(entry.trim()));
+        }
+        if (loaded.stream().map(SigningKey::getKid).distinct().count() != loaded.size()) {
+            throw new IllegalStateException("Signing key ids must be unique");
+        }
+        loaded.sort(Comparator.comparing(SigningKey::getActivateAt));
+        this.keys = List.copyOf(loaded);
+        this.overlap = Duration.ofMinutes(overlapMinutes);
+        refresh();
+    }
+
+    public SigningKey getActiveKey() {
+        return activeKey;
+    }
+
+    //returns null for unknown or retired kids
+    public Key getVerificationKey(String kid) {
+        return verificationKeys.get(kid != null ? kid : LEGACY_KID);
+    }
+
+    //picks up keys whose activation time has passed and retires the ones past the overlap window
+    @Scheduled(fixedDelayString = "${token.signing.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        SigningKey active = null;
+        Map<String, Key> verifiable = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            SigningKey key = keys.get(i);
+            if (key.getActivateAt().isAfter(now)) {
+                break;
+            }
+            Instant retiredAt = i + 1 < keys.size() ? keys.get(i + 1).getActivateAt() : null;
+            if (retiredAt == null || retiredAt.plus(overlap).isAfter(now)) {
+                verifiable.put(key.getKid(), key.getKey());
+            }
+            active = key;
+        }
+        if (active != activeKey) {
+            log.info("Signing tokens with key {}", active.getKid());
+        }
+        verificationKeys = Map.copyOf(verifiable);
+        activeKey = active;
+    }
+
+    private SigningKey parse(String entry) {
+        int kidEnd = entry.indexOf(':');
+        if (kidEnd <= 0) {
+            throw new IllegalStateException("Signing key entry must look like kid:secret[@activation]");
+        }
+        String kid = entry.substring(0, kidEnd);
+        String secret = entry.substring(kidEnd + 1);
+        Instant activateAt = Instant.EPOCH;
+        int activationStart = secret.indexOf('@');
+        if (activationStart >= 0) {
+            activateAt = Instant.parse(secret.substring(activationStart + 1));
+            secret = secret.substring(0, activationStart);
+        }
+        return decode(kid, secret, activateAt);
+    }
+
+    private SigningKey decode(String kid, String secret, Instant activateAt) {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("Signing key " + kid + " is shorter than 512 bits");
+        }
+        return new SigningKey(kid, Keys.hmacShaKeyFor(keyBytes), activateAt);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SigningKey {
+        private final String kid;
+        private final Key key;
+        private final Instant activateAt;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.config.CacheRegions;
+import com.example.DevOpsProj.model.Project;
+import com.example.DevOpsProj.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+//moves users and projects that have been soft-deleted for a while, together with their project_user rows,
+//into the *_archive tables in bounded batches, and moves them back on restore. Rows still referenced by
+//tokens, access requests, github usernames, figma links, repositories or help documents stay where they are
+@Service
+public class SoftDeleteArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeleteArchiveService.class);
+
+    private static final String USER_COLUMNS =
+            "user_id, address, is_deleted, email, enum_role, user_name, password, phone_number, deleted_at";
+    private static final String PROJECT_COLUMNS =
+            "project_id, is_deleted, last_updated, project_description, project_name, deleted_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DashboardStatsService dashboardStatsService;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter archivedUsers;
+    private final Counter archivedProjects;
+    private final Timer archiveTimer;
+
+    public SoftDeleteArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    EntityManagerFactory entityManagerFactory,
+                                    DashboardStatsService dashboardStatsService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${archive.after-days:30}") long archiveAfterDays,
+                                    @Value("${archive.batch-size:500}") int batchSize,
+                                    @Value("${archive.max-batches:20}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dashboardStatsService = dashboardStatsService;
+        this.archiveAfter = Duration.ofDays(archiveAfterDays);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archivedUsers = Counter.builder("archive.rows")
+                .tag("table", "user")
+                .description("Soft-deleted rows moved to the archive tables")
+                .register(meterRegistry);
+        this.archivedProjects = Counter.builder("archive.rows")
+                .tag("table", "project")
+                .description("Soft-deleted rows moved to the archive tables")
+                .register(meterRegistry);
+        this.archiveTimer = Timer.builder("archive.duration")
+                .description("Time spent in one archival run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}")
+    public void archiveDeletedRows() {
+        archiveTimer.record(() -> {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(archiveAfter));
+            long users = runBatches(() -> archiveUserBatch(cutoff));
+            long projects = runBatches(() -> archiveProjectBatch(cutoff));
+            archivedUsers.increment(users);
+            archivedProjects.increment(projects);
+            if (users > 0 || projects > 0) {
+                //the rows left through plain jdbc, hibernate does not know its cached copies are gone
+                evictCaches();
+                log.info("Archived {} users and {} projects deleted before {}", users, projects, cutoff);
+            }
+        });
+    }
+
+    //true when the user was soft-deleted or archived and is live again
+    public boolean restoreUser(Long userId) {
+        Boolean restored = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource("id", userId);
+            if (jdbcTemplate.update("UPDATE `user` SET is_deleted = false, deleted_at = NULL " +
+                    "WHERE user_id = :id AND is_deleted = true", params) == 1) {
+                return true;
+            }
+            int moved = jdbcTemplate.update("INSERT INTO `user` (" + USER_COLUMNS + ") " +
+                    "SELECT user_id, address, false, email, enum_role, user_name, password, phone_number, NULL " +
+                    "FROM user_archive WHERE user_id = :id", params);
+            if (moved == 0) {
+                return false;
+            }
+            jdbcTemplate.update("DELETE FROM user_archive WHERE user_id = :id", params);
+            //only the memberships whose project is live, the others come back with their project
+            jdbcTemplate.update("INSERT INTO project_user (project_id, user_id) " +
+                    "SELECT a.project_id, a.user_id FROM project_user_archive a " +
+                    "JOIN project p ON p.project_id = a.project_id WHERE a.user_id = :id", params);
+            jdbcTemplate.update("DELETE a FROM project_user_archive a " +
+                    "JOIN project p ON p.project_id = a.project_id WHERE a.user_id = :id", params);
+            return true;
+        });
+        return afterRestore(restored);
+    }
+
+    public boolean restoreProject(Long projectId) {
+        Boolean restored = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource("id", projectId);
+            if (jdbcTemplate.update("UPDATE project SET is_deleted = false, deleted_at = NULL " +
+                    "WHERE project_id = :id AND is_deleted = true", params) == 1) {
+                return true;
+            }
+            int moved = jdbcTemplate.update("INSERT INTO project (" + PROJECT_COLUMNS + ") " +
+                    "SELECT project_id, false, last_updated, project_description, project_name, NULL " +
+                    "FROM project_archive WHERE project_id = :id", params);
+            if (moved == 0) {
+                return false;
+            }
+            jdbcTemplate.update("DELETE FROM project_archive WHERE project_id = :id", params);
+            jdbcTemplate.update("INSERT INTO project_user (project_id, user_id) " +
+                    "SELECT a.project_id, a.user_id FROM project_user_archive a " +
+                    "JOIN `user` u ON u.user_id = a.user_id WHERE a.project_id = :id", params);
+            jdbcTemplate.update("DELETE a FROM project_user_archive a " +
+                    "JOIN `user` u ON u.user_id = a.user_id WHERE a.project_id = :id", params);
+            return true;
+        });
+        return afterRestore(restored);
+    }
+
+    private boolean afterRestore(Boolean restored) {
+        if (!Boolean.TRUE.equals(restored)) {
+            return false;
+        }
+        evictCaches();
+        dashboardStatsService.markStale();
+        return true;
+    }
+
+    //every batch is its own short transaction, stops at a short batch or after max-batches
+    private long runBatches(IntSupplier step) {
+        long total = 0;
+        int batches = 0;
+        int moved;
+        do {
+            moved = step.getAsInt();
+            total += moved;
+            batches++;
+        } while (moved == batchSize && batches < maxBatches);
+        return total;
+    }
+
+    private int archiveUserBatch(Timestamp cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT u.user_id FROM `user` u " +
+                    "WHERE u.is_deleted = true AND u.deleted_at < :cutoff " +
+                    "AND NOT EXISTS (SELECT 1 FROM token t WHERE t.user_id = u.user_id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM access_request a WHERE a.user_id = u.user_id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM user_names n WHERE n.user_id = u.user_id) " +
+                    "ORDER BY u.user_id LIMIT :limit",
+                    new MapSqlParameterSource("cutoff", cutoff).addValue("limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("now", Timestamp.from(Instant.now()));
+            jdbcTemplate.update("INSERT INTO user_archive (" + USER_COLUMNS + ", archived_at) " +
+                    "SELECT " + USER_COLUMNS + ", :now FROM `user` WHERE user_id IN (:ids)", params);
+            jdbcTemplate.update("INSERT INTO project_user_archive (project_id, user_id, archived_at) " +
+                    "SELECT project_id, user_id, :now FROM project_user WHERE user_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM project_user WHERE user_id IN (:ids)", params);
+            return jdbcTemplate.update("DELETE FROM `user` WHERE user_id IN (:ids)", params);
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private int archiveProjectBatch(Timestamp cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT p.project_id FROM project p " +
+                    "WHERE p.is_deleted = true AND p.deleted_at < :cutoff " +
+                    "AND NOT EXISTS (SELECT 1 FROM access_request a WHERE a.project_id = p.project_id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM figma f WHERE f.project_id = p.project_id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM repositories r WHERE r.project_id = p.project_id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM help_documents h WHERE h.project_id = p.project_id) " +
+                    "ORDER BY p.project_id LIMIT :limit",
+                    new MapSqlParameterSource("cutoff", cutoff).addValue("limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("now", Timestamp.from(Instant.now()));
+            jdbcTemplate.update("INSERT INTO project_archive (" + PROJECT_COLUMNS + ", archived_at) " +
+                    "SELECT " + PROJECT_COLUMNS + ", :now FROM project WHERE project_id IN (:ids)", params);
+            jdbcTemplate.update("INSERT INTO project_user_archive (project_id, user_id, archived_at) " +
+                    "SELECT project_id, user_id, :now FROM project_user WHERE project_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM project_user WHERE project_id IN (:ids)", params);
+            return jdbcTemplate.update("DELETE FROM project WHERE project_id IN (:ids)", params);
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private void evictCaches() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(User.class);
+        cache.evictEntityData(Project.class);
+        cache.evictCollectionData(CacheRegions.USER_PROJECTS_ROLE);
+        cache.evictCollectionData(CacheRegions.PROJECT_USERS_ROLE);
+        cache.evictDefaultQueryRegion();
+        cache.evictQueryRegions();
+    }
+}
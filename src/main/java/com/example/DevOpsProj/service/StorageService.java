@@ -3,12 +3,23 @@ package com.example.DevOpsProj.service;
 import com.example.DevOpsProj.model.FileData;
 import com.example.DevOpsProj.repository.StorageRepository;
 import com.example.DevOpsProj.utils.FileStorageUtils;
+import org.hibernate.engine.jdbc.BlobProxy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
 
 @Service
@@ -16,23 +27,49 @@ public class StorageService {
 
     @Autowired
     private StorageRepository storageRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
+    //the upload is streamed from the multipart part through the deflater into a temp file (its compressed size
+    //has to be known before the insert), then from the temp file into the blob. Only fixed size buffers are on the heap
     public String uploadFile(MultipartFile file) throws IOException {
-        FileData fileData = storageRepository.save(FileData.builder()
-                .name(file.getName())
-                .type(file.getContentType())
-                .fileData(FileStorageUtils.compressFile(file.getBytes())).build());
-
-        System.out.println(file.getOriginalFilename());
-        if(fileData!=null){
-            return "File uploaded successfully.";
+        Path compressed = Files.createTempFile("upload-", ".deflate");
+        try {
+            MessageDigest sha256 = sha256();
+            long originalSize;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256);
+                 OutputStream out = Files.newOutputStream(compressed)) {
+                originalSize = FileStorageUtils.compress(in, out);
+            }
+            long compressedSize = Files.size(compressed);
+            FileData fileData;
+            //saveAndFlush, the insert has to run while the stream behind the blob is still open
+            try (InputStream in = Files.newInputStream(compressed)) {
+                fileData = storageRepository.saveAndFlush(FileData.builder()
+                        .name(file.getName())
+                        .type(file.getContentType())
+                        .fileData(BlobProxy.generateProxy(in, compressedSize))
+                        .originalSize(originalSize)
+                        .compressedSize(compressedSize)
+                        .checksum(HexFormat.of().formatHex(sha256.digest()))
+                        .build());
+            }
+            if(fileData!=null){
+                return "File uploaded successfully.";
+            }
+            return null;
+        } finally {
+            Files.deleteIfExists(compressed);
         }
-        return null;
     }
 
+    //null when there is no such file
     public String getContentType(Long fileId) {
-        Optional<FileData> fileById = storageRepository.findFileById(fileId);
-        String fileName = fileById.get().getType();
+        Optional<String> type = storageRepository.findTypeById(fileId);
+        if (type.isEmpty()) {
+            return null;
+        }
+        String fileName = type.get();
         if (fileName.endsWith("pdf")) {
             return "application/pdf";
         } else if (fileName.endsWith("doc") || fileName.endsWith("docx")) {
@@ -44,12 +81,38 @@ public class StorageService {
         }
     }
 
-    public byte[] downloadFile(Long fileId){
-        Optional<FileData> dbFileData = storageRepository.findFileById(fileId);
-        byte[] files = FileStorageUtils.decompressFile(dbFileData.get().getFileData());
-        return files;
+    //inflates the stored blob straight into out instead of building the whole file as a byte array
+    public void writeFile(Long fileId, OutputStream out) throws IOException {
+        try {
+            jdbcTemplate.query("SELECT file_data FROM file_data WHERE id = ?",
+                    (ResultSetExtractor<Void>) rs -> {
+                        if (rs.next()) {
+                            decompress(rs.getBinaryStream(1), out);
+                        }
+                        return null;
+                    },
+                    fileId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
+    private static void decompress(InputStream inputStream, OutputStream out) {
+        if (inputStream == null) {
+            return;
+        }
+        try (inputStream) {
+            FileStorageUtils.decompress(inputStream, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
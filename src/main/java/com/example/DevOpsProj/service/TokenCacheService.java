@@ -0,0 +1,73 @@
+package com.example.DevOpsProj.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+//bounded in-memory cache of tokens that were already verified against the token table,
+//keyed by the sha-256 of the token so raw jwts are never held as map keys
+@Service
+public class TokenCacheService {
+
+    private final Cache<String, CachedToken> cache;
+
+    public TokenCacheService(@Value("${token.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${token.cache.ttl-seconds:300}") long ttlSeconds) {
+        final long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        //never keep an entry past the exp of the jwt itself
+                        long untilExpiry = Duration.between(Instant.now(), value.getExpiresAt()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public CachedToken get(String tokenHash) {
+        return cache.getIfPresent(tokenHash);
+    }
+
+    public void put(String tokenHash, Long userId, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(tokenHash, new CachedToken(userId, expiresAt));
+    }
+
+    //must be called whenever a token is revoked or expired in the database
+    public void invalidate(String tokenHash) {
+        cache.invalidate(tokenHash);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedToken {
+        private final Long userId;
+        private final Instant expiresAt;
+    }
+}
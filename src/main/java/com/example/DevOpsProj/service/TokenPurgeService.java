@@ -0,0 +1,77 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.repository.RevokedTokenRepository;
+import com.example.DevOpsProj.repository.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+//removes expired and revoked rows from the token table in bounded batches
+@Service
+public class TokenPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPurgeService.class);
+
+    private final TokenRepository tokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicLong tableSize = new AtomicLong();
+    private final Counter purgedTokens;
+    private final Timer purgeTimer;
+
+    public TokenPurgeService(TokenRepository tokenRepository,
+                             RevokedTokenRepository revokedTokenRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${token.purge.batch-size:1000}") int batchSize,
+                             @Value("${token.purge.max-batches:100}") int maxBatches) {
+        this.tokenRepository = tokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        Gauge.builder("tokens.table.size", tableSize, AtomicLong::get)
+                .description("Rows in the token table after the last purge run")
+                .register(meterRegistry);
+        this.purgedTokens = Counter.builder("tokens.purged")
+                .description("Token rows deleted by the purge job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("tokens.purge.duration")
+                .description("Time spent in one purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${token.purge.interval-ms:600000}")
+    public void purgeInactiveTokens() {
+        purgeTimer.record(() -> {
+            Instant cutoff = Instant.now();
+            long total = 0;
+            int batches = 0;
+            int deleted;
+            //every batch is its own short transaction so the table is never locked for long
+            do {
+                deleted = tokenRepository.deleteInactiveTokens(cutoff, batchSize);
+                total += deleted;
+                batches++;
+            } while (deleted == batchSize && batches < maxBatches);
+            purgedTokens.increment(total);
+            tableSize.set(tokenRepository.count());
+            log.debug("Purged {} tokens in {} batches", total, batches);
+            //the revocation log only has to cover tokens that could still be presented
+            batches = 0;
+            do {
+                deleted = revokedTokenRepository.deleteExpiredRevocations(cutoff, batchSize);
+                batches++;
+            } while (deleted == batchSize && batches < maxBatches);
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.responseDto.TokenRevocationDTO;
+import com.example.DevOpsProj.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+//bulk revocation for offboarding and key rotation. Every scope is one INSERT ... SELECT into the
+//revocation log plus one UPDATE on the token table, no token entities are loaded
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private TokenCacheService tokenCacheService;
+    @Autowired
+    private RevocationListService revocationListService;
+
+    @Transactional
+    public TokenRevocationDTO revokeByUser(Long userId) {
+        return revokeByUsers(List.of(userId));
+    }
+
+    @Transactional
+    public TokenRevocationDTO revokeByUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new TokenRevocationDTO("users", 0);
+        }
+        tokenRepository.logRevocationsByUsers(userIds, Instant.now());
+        int revoked = tokenRepository.revokeByUsers(userIds);
+        return afterRevocation("users", revoked);
+    }
+
+    @Transactional
+    public TokenRevocationDTO revokeByRole(EnumRole role) {
+        tokenRepository.logRevocationsByRole(role, Instant.now());
+        int revoked = tokenRepository.revokeByRole(role);
+        return afterRevocation("role:" + role.getEnumRole(), revoked);
+    }
+
+    @Transactional
+    public TokenRevocationDTO revokeIssuedBefore(Instant issuedBefore) {
+        tokenRepository.logRevocationsIssuedBefore(issuedBefore, Instant.now());
+        int revoked = tokenRepository.revokeIssuedBefore(issuedBefore);
+        return afterRevocation("issued-before:" + issuedBefore, revoked);
+    }
+
+    private TokenRevocationDTO afterRevocation(String scope, int revoked) {
+        if (revoked > 0) {
+            //before the commit a request could re-cache a token from the not yet revoked row, or the poll
+            //could miss the log rows, so both wait for it
+            runAfterCommit(() -> {
+                //the cache is keyed by token hash and does not know the owners, dropping it is cheaper than a lookup
+                tokenCacheService.invalidateAll();
+                //pull the new log rows into this node right away, other nodes get them on their next poll
+                revocationListService.poll();
+            });
+        }
+        return new TokenRevocationDTO(scope, revoked);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.DevOpsProj.service;
 
+import com.example.DevOpsProj.Mapper.GitRepositoryMapper;
+import com.example.DevOpsProj.Mapper.ProjectMapper;
+import com.example.DevOpsProj.Mapper.UserMapper;
+import com.example.DevOpsProj.commons.annotations.ReplicaRead;
 import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.SoftDeleteFilter;
+import com.example.DevOpsProj.dto.projection.UserProjectRow;
 import com.example.DevOpsProj.dto.requestDto.UserCreationDTO;
-import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
+import com.example.DevOpsProj.dto.responseDto.KeysetPage;
 import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
 import com.example.DevOpsProj.dto.responseDto.UserDTO;
 import com.example.DevOpsProj.dto.responseDto.UserProjectsDTO;
-import com.example.DevOpsProj.model.GitRepository;
 import com.example.DevOpsProj.model.Project;
 import com.example.DevOpsProj.model.User;
 import com.example.DevOpsProj.repository.UserRepository;
 import com.example.DevOpsProj.utils.JwtUtils;
+import com.example.DevOpsProj.utils.QueryUtils;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +29,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import javax.swing.text.html.Option;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -38,8 +46,19 @@ public class UserService {
     private JwtService jwtService;
     @Autowired
     private JwtUtils jwtUtils;
+    @Autowired
+    private SessionReuseService sessionReuseService;
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
 
-    private ModelMapper modelMapper;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private ProjectMapper projectMapper;
+    @Autowired
+    private GitRepositoryMapper gitRepositoryMapper;
 
 
     //implementing user creation using DTO pattern
@@ -49,19 +68,30 @@ public class UserService {
         user.setName(userCreationDTO.getName());
         user.setEmail(userCreationDTO.getEmail());
         user.setEnumRole(userCreationDTO.getEnumRole());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (userCreationDTO.getId() == null) {
+            dashboardStatsService.userCreated(saved.getEnumRole());
+        } else {
+            dashboardStatsService.markStale();
+        }
+        return saved;
     }
 
     public UserDTO updateUser(Long id, UserDTO userDTO){
         Optional<User> optionalUser = userRepository.findById(id);
         if(optionalUser.isPresent()) {
             User existingUser = optionalUser.get();
+            boolean roleChanged = existingUser.getEnumRole() != userDTO.getEnumRole();
             existingUser.setId(userDTO.getId());
             existingUser.setName(userDTO.getName());
             existingUser.setEmail(userDTO.getEmail());
             existingUser.setEnumRole(userDTO.getEnumRole());
 //            User updatedUser = userService.updateUser(existingUser);
             User updatedUser = userRepository.save(existingUser);
+            if (roleChanged) {
+                //moves the user between role counters and every membership of theirs
+                dashboardStatsService.markStale();
+            }
             UserDTO userDTOs = new UserDTO(updatedUser.getId(), updatedUser.getName(), updatedUser.getEmail(), updatedUser.getEnumRole());
             return userDTOs;
         }
@@ -86,7 +116,9 @@ public class UserService {
     //Soft deleting the user
     public boolean softDeleteUser(Long id){
         try{
-            userRepository.softDelete(id);
+            Optional<User> user = userRepository.findById(id).filter(u -> !Boolean.TRUE.equals(u.getDeleted()));
+            userRepository.softDelete(id, Instant.now());
+            user.ifPresent(u -> dashboardStatsService.userSoftDeleted(u.getEnumRole()));
             return true; //setting deleted=1 / true
         }catch (Exception e){
             return false; //keeping deleted false
@@ -110,22 +142,24 @@ public class UserService {
     }
 
     private UserDTO convertToUserDto(User user){
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        return userDTO;
+        return userMapper.toDTO(user);
     }
 
     public User getUserByEmail(String userEmail){
         return userRepository.findByEmail(userEmail);
     }
 
+    @ReplicaRead
     public Integer getCountAllUsers() {
         return userRepository.countAllUsers();
     }
 
+    @ReplicaRead
     public Integer getCountAllUsersByRole(EnumRole role) {
         return userRepository.countAllUsersByRole(role);
     }
 
+    @ReplicaRead
     public Integer getCountAllUsersByProjectId(Long projectId) {
         Optional<Project> project = projectService.getProjectById(projectId);
         if (project.isPresent()){
@@ -136,41 +170,61 @@ public class UserService {
         }
     }
 
+    @ReplicaRead
     public List<UserProjectsDTO> getAllUsersWithProjects() {
-        List<User> users = userRepository.findAll();
-        List<UserProjectsDTO> userProjectsDTOs = new ArrayList<>();
-
-        for (User user : users) {
-            List<Project> projects = user.getProjects();
+        return toUserProjectsDTOs(userRepository.findAllUserProjectRows());
+    }
 
-            List<String> projectNames = projects.stream()
-                    .map(Project::getProjectName)
-                    .collect(Collectors.toList());
+    //one page of users, two statements regardless of the page size
+    @ReplicaRead
+    public List<UserProjectsDTO> getAllUsersWithProjects(int page, int size) {
+        List<Long> userIds = userRepository.findUserIds(PageRequest.of(page, size));
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toUserProjectsDTOs(userRepository.findUserProjectRows(userIds));
+    }
 
-            UserProjectsDTO userProjectsDTO = new UserProjectsDTO(user.getId(), user.getName(), projectNames);
-            userProjectsDTOs.add(userProjectsDTO);
+    //rows arrive ordered by user id, so each user is folded into the dto in a single pass
+    private List<UserProjectsDTO> toUserProjectsDTOs(List<UserProjectRow> rows) {
+        List<UserProjectsDTO> userProjectsDTOs = new ArrayList<>();
+        UserProjectsDTO current = null;
+        for (UserProjectRow row : rows) {
+            if (current == null || !current.getUserId().equals(row.getUserId())) {
+                current = new UserProjectsDTO(row.getUserId(), row.getUserName(), new ArrayList<>());
+                userProjectsDTOs.add(current);
+            }
+            if (row.getProjectName() != null) {
+                current.getProjectNames().add(row.getProjectName());
+            }
         }
         return userProjectsDTOs;
     }
 
-    public List<UserProjectsDTO> getUsersWithMultipleProjects() {
-        List<UserProjectsDTO> allUsersWithProjects = getAllUsersWithProjects();
-        List<UserProjectsDTO> usersWithMultipleProjects = new ArrayList<>();
-
-        for (UserProjectsDTO userProjectsDTO : allUsersWithProjects) {
-            if (userProjectsDTO.getProjectNames().size() > 1) {
-                usersWithMultipleProjects.add(userProjectsDTO);
-            }
+    //the HAVING query finds the users, project names are then loaded only for that page of users
+    @ReplicaRead
+    public List<UserProjectsDTO> getUsersWithMultipleProjects(EnumRole role, Pageable pageable) {
+        List<Long> userIds = userRepository.findUserIdsWithMultipleProjects(role, pageable);
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
         }
-        return usersWithMultipleProjects;
+        return toUserProjectsDTOs(userRepository.findUserProjectRows(userIds));
     }
 
+    @ReplicaRead
     public List<UserDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserDTO> userDTOList = users.stream()
-                .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getEnumRole()))
-                .toList();
-        return userDTOList;
+        return userRepository.findAllUserDTOs();
+    }
+
+    @ReplicaRead
+    public KeysetPage<UserDTO> getUsersPage(long after, int limit, EnumRole role, Boolean deleted, String namePrefix, boolean withCount) {
+        String namePattern = QueryUtils.likePrefix(namePrefix);
+        //the deleted parameter decides which rows are listed, not the soft-delete filter
+        return softDeleteFilter.includingDeleted(() -> {
+            List<User> users = userRepository.findUsersAfter(after, role, deleted, namePattern, PageRequest.of(0, limit + 1));
+            Long totalCount = withCount ? userRepository.countUsers(role, deleted, namePattern) : null;
+            return KeysetPage.of(users, limit, User::getId, userMapper::toDTO, totalCount);
+        });
     }
 
     public List<ProjectDTO> getAllProjectsAndRepositoriesByUserId(Long userId) {
@@ -181,14 +235,8 @@ public class UserService {
 
         List<ProjectDTO> projectDTOs = new ArrayList<>();
         for (Project project : projects) {
-            ProjectDTO projectDTO = modelMapper.map(project, ProjectDTO.class);
-            List<GitRepository> repositories = project.getRepositories();
-            List<GitRepositoryDTO> repositoryDTOs = new ArrayList<>();
-            for (GitRepository repository : repositories) {
-                GitRepositoryDTO repositoryDTO = modelMapper.map(repository, GitRepositoryDTO.class);
-                repositoryDTOs.add(repositoryDTO);
-            }
-            projectDTO.setRepositories(repositoryDTOs);
+            ProjectDTO projectDTO = projectMapper.toDTO(project);
+            projectDTO.setRepositories(gitRepositoryMapper.toDTOs(project.getRepositories()));
             projectDTOs.add(projectDTO);
         }
 
@@ -199,7 +247,8 @@ public class UserService {
         return userRepository.findByRoleAndUserId(userId, userRole);
     }
 
-    public UserDTO loginVerification(String email){
+    //currentToken is the token the client already holds (AccessToken header), null on a first login
+    public UserDTO loginVerification(String email, String currentToken){
         UserDTO userDTO = new UserDTO();
         User user = userRepository.existsByEmail(email);
         if(user == null){
@@ -209,9 +258,13 @@ public class UserService {
         userDTO.setName(user.getName());
         userDTO.setEmail(user.getEmail());
         userDTO.setEnumRole(user.getEnumRole());
-        //generate token
-        String jwtToken = jwtService.generateToken(user);
-        jwtUtils.saveUserToken(user,jwtToken);
+        //hand back the token this client got on a previous login while it is still active
+        String jwtToken = sessionReuseService.findReusableToken(user.getId(), currentToken);
+        if (jwtToken == null) {
+            //generate token
+            jwtToken = jwtService.generateToken(user);
+            jwtUtils.saveUserToken(user,jwtToken);
+        }
         userDTO.setToken(jwtToken);
         return userDTO;
     }
@@ -0,0 +1,34 @@
+package com.example.DevOpsProj.service;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+//immutable result of parsing and verifying a jwt once, handed to every downstream check
+@Getter
+@ToString
+public final class VerifiedClaims {
+
+    private final String subject;
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    VerifiedClaims(Claims claims) {
+        this.subject = claims.getSubject();
+        this.tokenId = claims.getId();
+        this.issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        this.expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
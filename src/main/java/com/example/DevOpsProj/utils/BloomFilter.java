@@ -0,0 +1,46 @@
+package com.example.DevOpsProj.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//bloom filter over hex encoded sha-256 digests (see TokenHashUtils), the digest bits are already
+//uniformly distributed so they are used directly instead of hashing the key again
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    public void put(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest.substring(0, 16), 16);
+        long h2 = Long.parseUnsignedLong(hexDigest.substring(16, 32), 16);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest.substring(0, 16), 16);
+        long h2 = Long.parseUnsignedLong(hexDigest.substring(16, 32), 16);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
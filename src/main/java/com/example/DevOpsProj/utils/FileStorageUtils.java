@@ -1,43 +1,51 @@
 package com.example.DevOpsProj.utils;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+//streaming deflate/inflate with fixed size buffers, memory use does not depend on the file size
 public class FileStorageUtils {
 
-    public static byte[] compressFile(byte[] data) {
-        Deflater deflater = new Deflater();
-        deflater.setLevel(Deflater.BEST_COMPRESSION);
-        deflater.setInput(data);
-        deflater.finish();
+    private static final int BUFFER_SIZE = 8 * 1024;
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] tmp = new byte[4*1024];
-        while (!deflater.finished()) {
-            int size = deflater.deflate(tmp);
-            outputStream.write(tmp, 0, size);
-        }
+    //compresses everything read from in into out (zlib format, same as the rows stored before),
+    //returns the number of uncompressed bytes. Neither stream is closed
+    public static long compress(InputStream in, OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
         try {
-            outputStream.close();
-        } catch (Exception ignored) {
+            DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            long total = copy(in, deflaterOut);
+            deflaterOut.finish();
+            return total;
+        } finally {
+            //frees the native zlib memory now instead of whenever the deflater is collected
+            deflater.end();
         }
-        return outputStream.toByteArray();
     }
 
-    public static byte[] decompressFile(byte[] data) {
+    //writes the decompressed content of in to out, returns the number of bytes written. Neither stream is closed
+    public static long decompress(InputStream in, OutputStream out) throws IOException {
         Inflater inflater = new Inflater();
-        inflater.setInput(data);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] tmp = new byte[4*1024];
         try {
-            while (!inflater.finished()) {
-                int count = inflater.inflate(tmp);
-                outputStream.write(tmp, 0, count);
-            }
-            outputStream.close();
-        } catch (Exception ignored) {
+            return copy(new InflaterInputStream(in, inflater, BUFFER_SIZE), out);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
         }
-        return outputStream.toByteArray();
+        return total;
     }
 }
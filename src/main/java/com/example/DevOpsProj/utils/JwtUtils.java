@@ -16,31 +16,24 @@ public class JwtUtils {
     @Autowired
     private TokenRepository tokenRepository;
 
-    //get the email from the token
+    //get the email from the token, this does not check the signature, see GoogleIdTokenVerifier
     public static String getEmailFromJwt(String jwt){
         DecodedJWT decodedJWT = JWT.decode(jwt);
         return decodedJWT.getClaim("email").asString();
     }
 
     public  void saveUserToken(User user, String jwtToken) {
+        DecodedJWT decodedJWT = JWT.decode(jwtToken);
         var token = Token.builder()
                 .user(user)
-                .token(jwtToken)
+                .tokenHash(TokenHashUtils.sha256(jwtToken))
+                .issuedAt(decodedJWT.getIssuedAtAsInstant())
+                .expiresAt(decodedJWT.getExpiresAtAsInstant())
                 .tokenType(TokenType.BEARER)
                 .expired(false)
                 .revoked(false)
                 .build();
         tokenRepository.save(token);
     }
-    private void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        if (validUserTokens.isEmpty())
-            return;
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-        tokenRepository.saveAll(validUserTokens);
-    }
 
 }
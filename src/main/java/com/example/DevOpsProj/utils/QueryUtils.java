@@ -0,0 +1,16 @@
+package com.example.DevOpsProj.utils;
+
+public class QueryUtils {
+
+    private QueryUtils() {
+    }
+
+    //LIKE pattern for a starts-with filter, used with ESCAPE '!' so user input cannot add wildcards.
+    //A prefix match can still use the index on the column
+    public static String likePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return null;
+        }
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
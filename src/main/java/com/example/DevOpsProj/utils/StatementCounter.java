@@ -0,0 +1,50 @@
+package com.example.DevOpsProj.utils;
+
+//jdbc statements and time spent in them on the current thread, fed by the counting datasource proxy.
+//Scopes nest, a statement is added to every open scope so a test can measure around a whole request
+public final class StatementCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static Counts start() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void stop(Counts counts) {
+        if (CURRENT.get() == counts) {
+            CURRENT.set(counts.parent);
+        }
+    }
+
+    //no-op when nothing on this thread is counting
+    public static void record(long elapsedMillis) {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.statements++;
+            counts.elapsedMillis += elapsedMillis;
+        }
+    }
+
+    //only touched by the thread that started it
+    public static final class Counts {
+        private final Counts parent;
+        private long statements;
+        private long elapsedMillis;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
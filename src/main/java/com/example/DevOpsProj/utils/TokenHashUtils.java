@@ -0,0 +1,22 @@
+package com.example.DevOpsProj.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+//util for turning a raw jwt into a fixed width key, so the token itself never has to be kept around
+public class TokenHashUtils {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    //hex encoded sha-256 digest of the token (always 64 characters)
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+-- Schema as hibernate ddl-auto=update left it before the migrations existed. Databases that already have
+-- these tables are baselined at this version (spring.flyway.baseline-on-migrate) and start from V2, so this
+-- file must not change
+
+-- id tables of the entities on the default generator, one row each
+CREATE TABLE access_request_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO access_request_seq VALUES (1);
+CREATE TABLE figma_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO figma_seq VALUES (1);
+CREATE TABLE repositories_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO repositories_seq VALUES (1);
+CREATE TABLE token_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO token_seq VALUES (1);
+CREATE TABLE user_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO user_seq VALUES (1);
+CREATE TABLE user_names_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO user_names_seq VALUES (1);
+
+CREATE TABLE `user` (
+    user_id      BIGINT       NOT NULL,
+    address      VARCHAR(255),
+    is_deleted   BIT,
+    email        VARCHAR(255) NOT NULL,
+    enum_role    VARCHAR(255),
+    user_name    VARCHAR(255) NOT NULL,
+    password     VARCHAR(255),
+    phone_number VARCHAR(255),
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE project (
+    project_id          BIGINT       NOT NULL AUTO_INCREMENT,
+    is_deleted          BIT,
+    last_updated        DATETIME(6)  NOT NULL,
+    project_description VARCHAR(255),
+    project_name        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (project_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE project_user (
+    project_id BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    CONSTRAINT fk_project_user_project FOREIGN KEY (project_id) REFERENCES project (project_id),
+    CONSTRAINT fk_project_user_user FOREIGN KEY (user_id) REFERENCES `user` (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE access_request (
+    access_request_id BIGINT       NOT NULL,
+    allowed           BIT          NOT NULL,
+    pm_name           VARCHAR(255) NOT NULL,
+    description       VARCHAR(255),
+    updated           BIT          NOT NULL,
+    project_id        BIGINT,
+    user_id           BIGINT,
+    PRIMARY KEY (access_request_id),
+    CONSTRAINT fk_access_request_project FOREIGN KEY (project_id) REFERENCES project (project_id),
+    CONSTRAINT fk_access_request_user FOREIGN KEY (user_id) REFERENCES `user` (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE figma (
+    figma_id         BIGINT       NOT NULL,
+    figma_url        VARCHAR(255) NOT NULL,
+    screenshot_image MEDIUMTEXT,
+    users            VARCHAR(255),
+    project_id       BIGINT,
+    PRIMARY KEY (figma_id),
+    CONSTRAINT fk_figma_project FOREIGN KEY (project_id) REFERENCES project (project_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE repositories (
+    repo_id          BIGINT       NOT NULL,
+    repo_description VARCHAR(255),
+    repo_name        VARCHAR(255) NOT NULL,
+    project_id       BIGINT,
+    PRIMARY KEY (repo_id),
+    CONSTRAINT fk_repositories_project FOREIGN KEY (project_id) REFERENCES project (project_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_names (
+    username_id     BIGINT       NOT NULL,
+    github_username VARCHAR(255) NOT NULL,
+    user_id         BIGINT,
+    PRIMARY KEY (username_id),
+    CONSTRAINT uk_user_names_user UNIQUE (user_id),
+    CONSTRAINT fk_user_names_user FOREIGN KEY (user_id) REFERENCES `user` (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE repository_username (
+    repository_id BIGINT NOT NULL,
+    username_id   BIGINT NOT NULL,
+    CONSTRAINT fk_repository_username_repository FOREIGN KEY (repository_id) REFERENCES repositories (repo_id),
+    CONSTRAINT fk_repository_username_username FOREIGN KEY (username_id) REFERENCES user_names (username_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE help_documents (
+    help_document_id BIGINT       NOT NULL AUTO_INCREMENT,
+    category         VARCHAR(255),
+    data             BLOB,
+    file_name        VARCHAR(255),
+    project_id       BIGINT,
+    PRIMARY KEY (help_document_id),
+    CONSTRAINT fk_help_documents_project FOREIGN KEY (project_id) REFERENCES project (project_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE document_category (
+    category_id BIGINT       NOT NULL AUTO_INCREMENT,
+    category    VARCHAR(255),
+    PRIMARY KEY (category_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE file_data (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    file_data MEDIUMBLOB,
+    name      VARCHAR(255),
+    type      VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE collaborators (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    owner    VARCHAR(255),
+    repo     VARCHAR(255),
+    username VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE token (
+    id         INTEGER      NOT NULL,
+    expired    BIT          NOT NULL,
+    revoked    BIT          NOT NULL,
+    token      VARCHAR(255),
+    token_type VARCHAR(255),
+    user_id    BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_token_token UNIQUE (token),
+    CONSTRAINT fk_token_user FOREIGN KEY (user_id) REFERENCES `user` (user_id)
+) ENGINE = InnoDB;
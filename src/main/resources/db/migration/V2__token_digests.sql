@@ -0,0 +1,23 @@
+-- Tokens are looked up by the sha-256 of the jwt and carry the times read from it, the raw jwt is no longer
+-- stored. Rows from before have no digest and can never be matched again, so they go with the old column and
+-- those users sign in again
+ALTER TABLE token ADD COLUMN token_hash CHAR(64);
+ALTER TABLE token ADD COLUMN issued_at DATETIME(6);
+ALTER TABLE token ADD COLUMN expires_at DATETIME(6);
+DELETE FROM token;
+ALTER TABLE token DROP COLUMN token;
+ALTER TABLE token ADD CONSTRAINT uk_token_token_hash UNIQUE (token_hash);
+
+-- the purge walks tokens in expiry order and also removes the revoked ones
+CREATE INDEX idx_token_expires_at ON token (expires_at);
+CREATE INDEX idx_token_revoked ON token (revoked);
+
+-- revocations for the nodes that validate tokens from their claims, kept until the token would have expired
+CREATE TABLE revoked_token (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    expires_at DATETIME(6),
+    revoked_at DATETIME(6) NOT NULL,
+    token_hash CHAR(64)    NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_revoked_token_expires_at (expires_at)
+) ENGINE = InnoDB;
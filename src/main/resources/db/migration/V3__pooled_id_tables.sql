@@ -0,0 +1,12 @@
+-- project, file_data, help_documents and document_category used to take auto_increment ids and now take
+-- pooled ids from an id table like the other entities. Hibernate reads next_val as the top of a block of 50,
+-- so each id table starts a whole block above the current max id. The auto_increment attribute stays, it is
+-- unused once hibernate supplies the ids and the referenced keys are left untouched
+CREATE TABLE project_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO project_seq SELECT COALESCE(MAX(project_id), 0) + 1 + 50 FROM project;
+CREATE TABLE file_data_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO file_data_seq SELECT COALESCE(MAX(id), 0) + 1 + 50 FROM file_data;
+CREATE TABLE help_documents_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO help_documents_seq SELECT COALESCE(MAX(help_document_id), 0) + 1 + 50 FROM help_documents;
+CREATE TABLE document_category_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO document_category_seq SELECT COALESCE(MAX(category_id), 0) + 1 + 50 FROM document_category;
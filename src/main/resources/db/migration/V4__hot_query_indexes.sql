@@ -0,0 +1,32 @@
+-- Indexes for the columns the repositories filter and join on. InnoDB secondary indexes carry the primary
+-- key, so an index on the filtered columns also covers the count(*) and id-only reads over them
+
+-- login and registration look users up by email, the listings filter on role and search by name
+CREATE INDEX idx_user_email ON `user` (email);
+CREATE INDEX idx_user_enum_role ON `user` (enum_role);
+CREATE INDEX idx_user_name ON `user` (user_name);
+
+-- countAllUsers, countAllUsersByRole and the grouped dashboard count read only these two columns
+CREATE INDEX idx_user_deleted_role ON `user` (is_deleted, enum_role);
+
+-- project listings filter on the soft-delete flag and search by name
+CREATE INDEX idx_project_is_deleted ON project (is_deleted);
+CREATE INDEX idx_project_name ON project (project_name);
+
+-- both directions of the membership join: projects of a user (countAllProjectsByUserId, role counts)
+-- and users of a project (countAllUsersByProjectId, countAllUsersByProjectIdAndRole)
+CREATE INDEX idx_project_user_user_project ON project_user (user_id, project_id);
+CREATE INDEX idx_project_user_project_user ON project_user (project_id, user_id);
+
+-- the set-based revocations pick a user's live tokens, the token itself is found by the unique token_hash
+CREATE INDEX idx_token_user_revoked ON token (user_id, revoked);
+
+-- repositories by name and of a project
+CREATE INDEX idx_repositories_repo_name ON repositories (repo_name);
+CREATE INDEX idx_repositories_project_id ON repositories (project_id);
+
+-- help documents of a project, by category
+CREATE INDEX idx_help_documents_project_category ON help_documents (project_id, category);
+
+-- open access requests, walked in id order by the keyset page
+CREATE INDEX idx_access_request_updated ON access_request (updated);
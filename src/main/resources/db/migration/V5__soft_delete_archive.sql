@@ -0,0 +1,43 @@
+-- When a user or project was soft-deleted, the archival job moves rows deleted long enough ago out of the
+-- hot tables. Rows deleted before this column existed start their clock now
+ALTER TABLE `user` ADD COLUMN deleted_at DATETIME(6);
+ALTER TABLE project ADD COLUMN deleted_at DATETIME(6);
+UPDATE `user` SET deleted_at = CURRENT_TIMESTAMP(6) WHERE is_deleted = true;
+UPDATE project SET deleted_at = CURRENT_TIMESTAMP(6) WHERE is_deleted = true;
+CREATE INDEX idx_user_deleted_at ON `user` (deleted_at);
+CREATE INDEX idx_project_deleted_at ON project (deleted_at);
+
+-- same columns as the hot tables plus the archive time, no foreign keys so rows can be moved in any order
+CREATE TABLE user_archive (
+    user_id      BIGINT       NOT NULL,
+    address      VARCHAR(255),
+    is_deleted   BIT,
+    email        VARCHAR(255) NOT NULL,
+    enum_role    VARCHAR(255),
+    user_name    VARCHAR(255) NOT NULL,
+    password     VARCHAR(255),
+    phone_number VARCHAR(255),
+    deleted_at   DATETIME(6),
+    archived_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE project_archive (
+    project_id          BIGINT       NOT NULL,
+    is_deleted          BIT,
+    last_updated        DATETIME(6)  NOT NULL,
+    project_description VARCHAR(255),
+    project_name        VARCHAR(255) NOT NULL,
+    deleted_at          DATETIME(6),
+    archived_at         DATETIME(6)  NOT NULL,
+    PRIMARY KEY (project_id)
+) ENGINE = InnoDB;
+
+-- memberships leave with whichever side is archived first and come back once both sides are live again
+CREATE TABLE project_user_archive (
+    project_id  BIGINT      NOT NULL,
+    user_id     BIGINT      NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_project_user_archive_user (user_id),
+    INDEX idx_project_user_archive_project (project_id)
+) ENGINE = InnoDB;
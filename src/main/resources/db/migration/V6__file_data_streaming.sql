@@ -0,0 +1,9 @@
+-- uploads are streamed into the blob, so the column is no longer capped at mediumblob (16 MB compressed)
+ALTER TABLE file_data MODIFY file_data LONGBLOB;
+
+-- sizes and sha-256 of the original content, recorded while the upload is compressed
+ALTER TABLE file_data
+    ADD COLUMN original_size   BIGINT,
+    ADD COLUMN compressed_size BIGINT,
+    ADD COLUMN checksum        CHAR(64);
+UPDATE file_data SET compressed_size = LENGTH(file_data) WHERE file_data IS NOT NULL;
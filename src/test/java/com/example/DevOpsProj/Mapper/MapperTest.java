@@ -0,0 +1,124 @@
+package com.example.DevOpsProj.Mapper;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.dto.requestDto.AccessRequestDTO;
+import com.example.DevOpsProj.dto.responseDto.GitRepositoryDTO;
+import com.example.DevOpsProj.dto.responseDto.ProjectDTO;
+import com.example.DevOpsProj.dto.responseDto.UserDTO;
+import com.example.DevOpsProj.model.AccessRequest;
+import com.example.DevOpsProj.model.GitRepository;
+import com.example.DevOpsProj.model.Project;
+import com.example.DevOpsProj.model.User;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+//the hand written mappers replaced ModelMapper, so on the same entities they have to fill every
+//dto field the way ModelMapper did. The entities carry no associations, ModelMapper leaves those null too
+class MapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final ProjectMapper projectMapper = new ProjectMapper();
+    private final GitRepositoryMapper gitRepositoryMapper = new GitRepositoryMapper();
+    private final AccessRequestMapper accessRequestMapper = new AccessRequestMapper(userMapper, projectMapper);
+
+    @Test
+    void userMapsLikeModelMapper() {
+        User user = user();
+
+        assertSameUser(modelMapper.map(user, UserDTO.class), userMapper.toDTO(user));
+    }
+
+    @Test
+    void projectMapsLikeModelMapper() {
+        Project project = project();
+
+        assertSameProject(modelMapper.map(project, ProjectDTO.class), projectMapper.toDTO(project));
+    }
+
+    @Test
+    void gitRepositoryMapsLikeModelMapper() {
+        GitRepository gitRepository = new GitRepository();
+        gitRepository.setRepoId(3L);
+        gitRepository.setName("repository");
+        gitRepository.setDescription("description");
+
+        GitRepositoryDTO expected = modelMapper.map(gitRepository, GitRepositoryDTO.class);
+        GitRepositoryDTO actual = gitRepositoryMapper.toDTO(gitRepository);
+
+        assertEquals(expected.getRepoId(), actual.getRepoId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    @Test
+    void accessRequestMapsLikeModelMapper() {
+        AccessRequest accessRequest = new AccessRequest();
+        accessRequest.setAccessRequestId(4L);
+        accessRequest.setPmName("pm");
+        accessRequest.setUser(user());
+        accessRequest.setProject(project());
+        accessRequest.setRequestDescription("access");
+        accessRequest.setAllowed(true);
+
+        AccessRequestDTO expected = modelMapper.map(accessRequest, AccessRequestDTO.class);
+        AccessRequestDTO actual = accessRequestMapper.toDTO(accessRequest);
+
+        assertEquals(expected.getAccessRequestId(), actual.getAccessRequestId());
+        assertEquals(expected.getPmName(), actual.getPmName());
+        assertEquals(expected.getRequestDescription(), actual.getRequestDescription());
+        assertEquals(expected.isAllowed(), actual.isAllowed());
+        assertSameUser(expected.getUser(), actual.getUser());
+        assertSameProject(expected.getProject(), actual.getProject());
+    }
+
+    @Test
+    void nullMapsToNull() {
+        assertNull(userMapper.toDTO(null));
+        assertNull(projectMapper.toDTO(null));
+        assertNull(gitRepositoryMapper.toDTO(null));
+        assertNull(accessRequestMapper.toDTO(null));
+    }
+
+    private static void assertSameUser(UserDTO expected, UserDTO actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getEnumRole(), actual.getEnumRole());
+        assertEquals(expected.getToken(), actual.getToken());
+    }
+
+    private static void assertSameProject(ProjectDTO expected, ProjectDTO actual) {
+        assertEquals(expected.getProjectId(), actual.getProjectId());
+        assertEquals(expected.getProjectName(), actual.getProjectName());
+        assertEquals(expected.getProjectDescription(), actual.getProjectDescription());
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated());
+        assertEquals(expected.isStatus(), actual.isStatus());
+        assertEquals(expected.getUsers(), actual.getUsers());
+        assertEquals(expected.getRepositories(), actual.getRepositories());
+        assertEquals(expected.getFigma(), actual.getFigma());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("user");
+        user.setEmail("user@example.com");
+        user.setEnumRole(EnumRole.USER);
+        return user;
+    }
+
+    private static Project project() {
+        Project project = new Project();
+        project.setProjectId(2L);
+        project.setProjectName("project");
+        project.setProjectDescription("description");
+        project.setLastUpdated(LocalDateTime.of(2023, 5, 1, 12, 0));
+        return project;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.DevOpsProj.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//two embedded databases wired like DataSourceConfig does it (routing datasource behind a lazy proxy, one
+//transaction manager per kind of transaction), each with a marker row telling which one answered
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private JpaTransactionManager primaryTransactionManager;
+    private ReplicaReadTransactionManager replicaTransactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setManagedTypes(PersistenceManagedTypes.of());
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+        primaryTransactionManager = new JpaTransactionManager(entityManagerFactory);
+        replicaTransactionManager = new ReplicaReadTransactionManager(entityManagerFactory);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactoryBean.destroy();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void replicaIsNotUsedBeforeTheFirstCheck() {
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals("primary", answeredBy(replicaTransactionManager, true));
+        assertEquals(1, connections("primary", "true"));
+        assertEquals(0, connections("replica", "true"));
+    }
+
+    @Test
+    void replicaReadsGoToTheHealthyReplica() {
+        monitor("").check();
+        assertTrue(routingDataSource.isReplicaAvailable());
+
+        assertEquals("replica", answeredBy(replicaTransactionManager, true));
+        assertEquals(1, connections("replica", "true"));
+        assertEquals(0, connections("primary", "true"));
+    }
+
+    @Test
+    void otherTransactionsStayOnThePrimary() {
+        monitor("").check();
+        double writesBefore = connections("primary", "false");
+
+        //plain readOnly, e.g. the transaction SimpleJpaRepository opens around findById
+        assertEquals("primary", answeredBy(primaryTransactionManager, true));
+        assertEquals("primary", answeredBy(primaryTransactionManager, false));
+        //the replica manager without readOnly is not a replica read either
+        assertEquals("primary", answeredBy(replicaTransactionManager, false));
+
+        assertEquals(1, connections("primary", "true"));
+        assertEquals(writesBefore + 2, connections("primary", "false"));
+        assertEquals(0, connections("replica", "true"));
+    }
+
+    @Test
+    void replicaReadsFallBackToThePrimaryWhenTheCheckFails() {
+        monitor("").check();
+        assertEquals("replica", answeredBy(replicaTransactionManager, true));
+
+        //a lag query the replica cannot answer counts as an unhealthy replica
+        monitor("SELECT lag FROM no_such_table").check();
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals("primary", answeredBy(replicaTransactionManager, true));
+
+        monitor("").check();
+        assertEquals("replica", answeredBy(replicaTransactionManager, true));
+
+        assertEquals(2, connections("replica", "true"));
+        assertEquals(1, connections("primary", "true"));
+    }
+
+    @Test
+    void replicaReadsFallBackToThePrimaryWhenTakenOutOfRotation() {
+        monitor("").check();
+        routingDataSource.setReplicaAvailable(false);
+
+        assertEquals("primary", answeredBy(replicaTransactionManager, true));
+        assertEquals(0, connections("replica", "true"));
+        assertEquals(1, connections("primary", "true"));
+    }
+
+    private String answeredBy(PlatformTransactionManager transactionManager, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private ReplicaLagMonitor monitor(String lagQuery) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("replicaDataSource", replica));
+        return new ReplicaLagMonitor(routingDataSource, beans.getBeanProvider(DataSource.class),
+                new SimpleMeterRegistry(), lagQuery, "Seconds_Behind_Source", 30);
+    }
+
+    private double connections(String target, String readOnly) {
+        return meterRegistry.get("datasource.routing.connections")
+                .tag("target", target)
+                .tag("read.only", readOnly)
+                .counter()
+                .count();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE marker (name VARCHAR(16))");
+        template.update("INSERT INTO marker (name) VALUES (?)", name);
+        return database;
+    }
+}
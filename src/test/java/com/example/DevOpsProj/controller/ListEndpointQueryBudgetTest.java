@@ -0,0 +1,153 @@
+package com.example.DevOpsProj.controller;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.AccessTokenInterceptor;
+import com.example.DevOpsProj.model.AccessRequest;
+import com.example.DevOpsProj.model.Figma;
+import com.example.DevOpsProj.model.GitRepository;
+import com.example.DevOpsProj.model.Project;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.repository.AccessRequestRepository;
+import com.example.DevOpsProj.repository.FigmaRepository;
+import com.example.DevOpsProj.repository.GitRepositoryRepository;
+import com.example.DevOpsProj.repository.ProjectRepository;
+import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.service.JwtService;
+import com.example.DevOpsProj.utils.JwtUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.DevOpsProj.utils.StatementAssertions.assertMaxStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the list endpoints with a tight @QueryBudget, over data where an n+1 on projects, users, repositories or
+//figma links would show up. The access token is validated once up front so its lookup is cached
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private GitRepositoryRepository gitRepositoryRepository;
+    @Autowired
+    private FigmaRepository figmaRepository;
+    @Autowired
+    private AccessRequestRepository accessRequestRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String accessToken;
+
+    @BeforeAll
+    void seed() {
+        //one transaction so the members are managed when the projects cascade over them
+        User admin = transactionTemplate.execute(status -> seedData());
+        accessToken = jwtService.generateToken(admin);
+        jwtUtils.saveUserToken(admin, accessToken);
+        jwtService.isTokenTrue(accessToken);
+    }
+
+    private User seedData() {
+        List<User> users = new ArrayList<>();
+        for (EnumRole role : EnumRole.values()) {
+            users.add(user(role));
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Project project = new Project();
+            project.setProjectName("budget-" + i + "-" + UUID.randomUUID());
+            project.setProjectDescription("query budget");
+            project.setDeleted(false);
+            project.setUsers(new ArrayList<>(users));
+            project = projectRepository.save(project);
+            projects.add(project);
+
+            GitRepository repository = new GitRepository();
+            repository.setName("repo-" + i);
+            repository.setDescription("query budget");
+            repository.setProject(project);
+            gitRepositoryRepository.save(repository);
+        }
+        for (Project project : projects.subList(0, 2)) {
+            Figma figma = new Figma();
+            figma.setFigmaURL("https://www.figma.com/file/" + project.getProjectId());
+            figma.setProject(project);
+            figmaRepository.save(figma);
+        }
+        AccessRequest accessRequest = new AccessRequest();
+        accessRequest.setPmName("pm");
+        accessRequest.setUser(users.get(EnumRole.PROJECT_MANAGER.ordinal()));
+        accessRequest.setProject(projects.get(0));
+        accessRequest.setRequestDescription("query budget");
+        accessRequestRepository.save(accessRequest);
+        return users.get(EnumRole.ADMIN.ordinal());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/projects/allProjects, 3",
+            "/api/projects/allProjects?limit=2&count=true, 3",
+            "/api/projects/all, 3",
+            "/api/projects/all?limit=2&count=true, 3",
+            "/api/projects/without-figma-url, 3",
+            "/api/projects/without-figma-url?limit=2&count=true, 3",
+            "/api/users/get, 3",
+            "/api/users/get?limit=2&count=true, 3",
+            "/api/users/getAll, 4",
+            "/api/users/getAll?page=0&size=2, 4",
+            "/api/users/getMultiple, 4",
+            "/api/users/getMultiple?role=USER&page=0&size=2, 4",
+            "/api/repositories/get, 3",
+            "/api/repositories/get?limit=2&count=true, 3",
+            "/api/repositories/get/role/USER, 3",
+            "/api/request/all, 3",
+            "/api/request/all?limit=2&count=true, 3",
+            "/api/figmas/getAll, 3",
+            "/api/figmas/getAll?limit=2&count=true, 3"
+    })
+    void listEndpointStaysWithinItsBudget(String url, int budget) throws Exception {
+        //measured on a cold second-level cache, an earlier case must not pay for this one
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAll();
+        assertMaxStatements(budget, () -> mockMvc.perform(get(url)
+                        .header(AccessTokenInterceptor.ACCESS_TOKEN_HEADER, accessToken))
+                .andExpect(status().isOk()));
+    }
+
+    private User user(EnumRole role) {
+        User user = new User();
+        String name = "budget-" + role.name().toLowerCase() + "-" + UUID.randomUUID();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setEnumRole(role);
+        user.setDeleted(false);
+        return userRepository.save(user);
+    }
+}
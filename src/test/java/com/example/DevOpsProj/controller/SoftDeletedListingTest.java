@@ -0,0 +1,124 @@
+package com.example.DevOpsProj.controller;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.AccessTokenInterceptor;
+import com.example.DevOpsProj.model.Project;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.repository.ProjectRepository;
+import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.service.JwtService;
+import com.example.DevOpsProj.service.ProjectService;
+import com.example.DevOpsProj.service.UserService;
+import com.example.DevOpsProj.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the soft-delete filter is on for every web request, the listings filtered on deleted=true have to lift it
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SoftDeletedListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private String accessToken;
+    private User liveUser;
+    private User deletedUser;
+    private Project liveProject;
+    private Project deletedProject;
+
+    @BeforeEach
+    void setUp() {
+        User admin = user(EnumRole.ADMIN);
+        accessToken = jwtService.generateToken(admin);
+        jwtUtils.saveUserToken(admin, accessToken);
+
+        liveUser = user(EnumRole.USER);
+        deletedUser = user(EnumRole.USER);
+        userService.softDeleteUser(deletedUser.getId());
+
+        liveProject = project();
+        deletedProject = project();
+        projectService.softDeleteProject(deletedProject.getProjectId());
+    }
+
+    @Test
+    void usersListedWithDeletedTrueAreTheDeletedOnes() throws Exception {
+        mockMvc.perform(get("/api/users/get").param("deleted", "true").param("limit", "500")
+                        .header(AccessTokenInterceptor.ACCESS_TOKEN_HEADER, accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", hasItem(deletedUser.getId().intValue())))
+                .andExpect(jsonPath("$.items[*].id", not(hasItem(liveUser.getId().intValue()))));
+    }
+
+    @Test
+    void usersListedWithDeletedFalseAreTheLiveOnes() throws Exception {
+        mockMvc.perform(get("/api/users/get").param("deleted", "false").param("limit", "500")
+                        .header(AccessTokenInterceptor.ACCESS_TOKEN_HEADER, accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", hasItem(liveUser.getId().intValue())))
+                .andExpect(jsonPath("$.items[*].id", not(hasItem(deletedUser.getId().intValue()))));
+    }
+
+    @Test
+    void projectsListedWithDeletedTrueAreTheDeletedOnes() throws Exception {
+        mockMvc.perform(get("/api/projects/all").param("deleted", "true").param("limit", "500")
+                        .header(AccessTokenInterceptor.ACCESS_TOKEN_HEADER, accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].projectId", hasItem(deletedProject.getProjectId().intValue())))
+                .andExpect(jsonPath("$.items[*].projectId", not(hasItem(liveProject.getProjectId().intValue()))));
+    }
+
+    @Test
+    void projectsListedWithDeletedFalseAreTheLiveOnes() throws Exception {
+        mockMvc.perform(get("/api/projects/all").param("deleted", "false").param("limit", "500")
+                        .header(AccessTokenInterceptor.ACCESS_TOKEN_HEADER, accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].projectId", hasItem(liveProject.getProjectId().intValue())))
+                .andExpect(jsonPath("$.items[*].projectId", not(hasItem(deletedProject.getProjectId().intValue()))));
+    }
+
+    private User user(EnumRole role) {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setEnumRole(role);
+        user.setDeleted(false);
+        return userRepository.save(user);
+    }
+
+    private Project project() {
+        Project project = new Project();
+        project.setProjectName("project-" + UUID.randomUUID());
+        project.setProjectDescription("soft delete listing");
+        project.setDeleted(false);
+        return projectRepository.save(project);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.DevOpsProj.repository;
+
+import com.example.DevOpsProj.model.Project;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.DevOpsProj.utils.StatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//project ids come in pooled blocks of 50 and hibernate.jdbc.batch_size is 50, so 1,000 inserts are
+//20 insert batches plus about one id fetch per block instead of 1,000 inserts and 1,000 id fetches
+@SpringBootTest
+@ActiveProfiles("test")
+class ProjectBatchInsertTest {
+
+    private static final int PROJECTS = 1000;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void thousandProjectsAreInsertedInBatches() throws Exception {
+        List<Project> projects = new ArrayList<>(PROJECTS);
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setProjectName("batched-" + i);
+            project.setProjectDescription("batch insert");
+            project.setDeleted(false);
+            projects.add(project);
+        }
+
+        //20 insert batches, 20 id blocks and a little slack for the optimizer's first fetch
+        List<Project> saved = assertMaxStatements(45, () -> projectRepository.saveAll(projects));
+
+        assertEquals(PROJECTS, saved.stream().map(Project::getProjectId).distinct().count());
+    }
+}
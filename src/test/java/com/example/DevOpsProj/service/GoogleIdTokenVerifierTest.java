@@ -0,0 +1,137 @@
+package com.example.DevOpsProj.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//signs id tokens with an RSA key generated for the run and serves its public half as a classpath: jwks,
+//so the verifier runs exactly as in production without reaching Google
+class GoogleIdTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final String KID = "test-kid";
+
+    @TempDir
+    static Path classpathRoot;
+
+    private static KeyPair signingKey;
+    private static KeyPair unknownKey;
+    private static URLClassLoader classLoader;
+
+    private GoogleIdTokenVerifier verifier;
+
+    @BeforeAll
+    static void writeJwks() throws NoSuchAlgorithmException, IOException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKey = generator.generateKeyPair();
+        unknownKey = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) signingKey.getPublic();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String jwks = "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + KID + "\"," +
+                "\"n\":\"" + encoder.encodeToString(unsigned(publicKey.getModulus().toByteArray())) + "\"," +
+                "\"e\":\"" + encoder.encodeToString(unsigned(publicKey.getPublicExponent().toByteArray())) + "\"}]}";
+        Files.writeString(classpathRoot.resolve("google-jwks.json"), jwks);
+        classLoader = new URLClassLoader(new URL[]{classpathRoot.toUri().toURL()}, null);
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void acceptsTokenSignedWithKnownKey() {
+        verifier = verifier(CLIENT_ID);
+        String token = token(signingKey, KID, ISSUER, CLIENT_ID, true);
+        assertEquals("user@example.com", verifier.verifyAndGetEmail(token));
+    }
+
+    @Test
+    void rejectsTokenIssuedToAnotherClient() {
+        verifier = verifier(CLIENT_ID);
+        String token = token(signingKey, KID, ISSUER, "someone-elses-client.apps.googleusercontent.com", true);
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void rejectsTokenFromAnotherIssuer() {
+        verifier = verifier(CLIENT_ID);
+        String token = token(signingKey, KID, "https://issuer.example.com", CLIENT_ID, true);
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void rejectsTokenSignedWithUnknownKid() {
+        verifier = verifier(CLIENT_ID);
+        String token = token(unknownKey, "unknown-kid", ISSUER, CLIENT_ID, true);
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void rejectsUnverifiedEmail() {
+        verifier = verifier(CLIENT_ID);
+        String token = token(signingKey, KID, ISSUER, CLIENT_ID, false);
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void rejectsEveryTokenWithoutClientId() {
+        verifier = verifier("");
+        String token = token(signingKey, KID, ISSUER, CLIENT_ID, true);
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    private static GoogleIdTokenVerifier verifier(String clientId) {
+        return new GoogleIdTokenVerifier(new DefaultResourceLoader(classLoader), "classpath:google-jwks.json",
+                60000, 2000, clientId);
+    }
+
+    private static String token(KeyPair keyPair, String kid, String issuer, String audience, boolean emailVerified) {
+        Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate());
+        return JWT.create()
+                .withKeyId(kid)
+                .withIssuer(issuer)
+                .withAudience(audience)
+                .withSubject("1234567890")
+                .withClaim("email", "user@example.com")
+                .withClaim("email_verified", emailVerified)
+                .withIssuedAt(Instant.now())
+                .withExpiresAt(Instant.now().plusSeconds(300))
+                .sign(algorithm);
+    }
+
+    //BigInteger adds a sign byte, jwks values are plain unsigned big-endian
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.DevOpsProjApplication;
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.config.JwtAuthenticationFilter;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.utils.JwtUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//two nodes in stateless mode on one database: a logout on one node reaches the other through the
+//revoked_token log on that node's next poll
+class RevocationListReplicationTest {
+
+    private static final String SHARED_DATABASE = "jdbc:h2:mem:revocation;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start();
+        //the schema is already there, the second node only connects to it
+        nodeB = start("--spring.jpa.hibernate.ddl-auto=none", "--spring.sql.init.mode=never");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void tokenRevokedOnOneNodeIsRejectedByTheOtherAfterItsPoll() throws Exception {
+        User user = new User();
+        user.setName("node-user-" + UUID.randomUUID());
+        user.setEmail(user.getName() + "@example.com");
+        user.setEnumRole(EnumRole.PROJECT_MANAGER);
+        user.setDeleted(false);
+        user = nodeA.getBean(UserRepository.class).save(user);
+        String token = nodeA.getBean(JwtService.class).generateToken(user);
+        nodeA.getBean(JwtUtils.class).saveUserToken(user, token);
+
+        RevocationListService revocationsB = nodeB.getBean(RevocationListService.class);
+        revocationsB.poll();
+        assertTrue(nodeB.getBean(JwtService.class).isTokenTrue(token));
+        //same principal type as the database mode, built from the claims
+        User principal = assertInstanceOf(User.class, authenticate(nodeB, token));
+        assertEquals(user.getId(), principal.getId());
+        assertEquals(EnumRole.PROJECT_MANAGER, principal.getEnumRole());
+
+        nodeA.getBean(LogoutService.class).logout(bearer(token), new MockHttpServletResponse(), null);
+        assertFalse(nodeA.getBean(JwtService.class).isTokenTrue(token));
+
+        revocationsB.poll();
+        assertFalse(nodeB.getBean(JwtService.class).isTokenTrue(token));
+        assertNull(authenticate(nodeB, token));
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        String[] common = {
+                "--spring.datasource.url=" + SHARED_DATABASE,
+                "--token.validation.mode=stateless",
+                "--server.port=0"
+        };
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+        return new SpringApplicationBuilder(DevOpsProjApplication.class).profiles("test").run(all);
+    }
+
+    //runs the token through the node's security filter and returns the principal it authenticated, if any
+    private static Object authenticate(ConfigurableApplicationContext node, String token) throws Exception {
+        AtomicReference<Object> principal = new AtomicReference<>();
+        try {
+            node.getBean(JwtAuthenticationFilter.class).doFilter(bearer(token), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                        principal.set(authentication != null ? authentication.getPrincipal() : null);
+                    });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return principal.get();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.DevOpsProj.service;
+
+import com.example.DevOpsProj.commons.enumerations.EnumRole;
+import com.example.DevOpsProj.model.User;
+import com.example.DevOpsProj.repository.UserRepository;
+import com.example.DevOpsProj.utils.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//the verified-token cache is dropped once the revocation has committed, so a token that was cached
+//before is looked up again and rejected on the very next check
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void cachedTokenIsRejectedRightAfterRevokeByUser() {
+        User user = new User();
+        user.setName("revoked-user-" + UUID.randomUUID());
+        user.setEmail(user.getName() + "@example.com");
+        user.setEnumRole(EnumRole.USER);
+        user.setDeleted(false);
+        user = userRepository.save(user);
+        String token = jwtService.generateToken(user);
+        jwtUtils.saveUserToken(user, token);
+        assertTrue(jwtService.isTokenTrue(token));
+
+        assertEquals(1, tokenRevocationService.revokeByUser(user.getId()).getRevokedCount());
+
+        assertFalse(jwtService.isTokenTrue(token));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.DevOpsProj.utils;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//statement budget checks for tests, e.g.
+//  assertMaxStatements(3, () -> mockMvc.perform(get("/api/projects/allProjects").header("AccessToken", token)));
+//MockMvc runs the request on the calling thread, so everything the request executes is counted
+public final class StatementAssertions {
+
+    private StatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int maxStatements, Callable<T> action) throws Exception {
+        StatementCounter.Counts counts = StatementCounter.start();
+        T result;
+        try {
+            result = action.call();
+        } finally {
+            StatementCounter.stop(counts);
+        }
+        assertTrue(counts.getStatements() <= maxStatements,
+                "expected at most " + maxStatements + " statements but " + counts.getStatements() + " ran");
+        return result;
+    }
+
+    public static <T> long countStatements(Callable<T> action) throws Exception {
+        StatementCounter.Counts counts = StatementCounter.start();
+        try {
+            action.call();
+        } finally {
+            StatementCounter.stop(counts);
+        }
+        return counts.getStatements();
+    }
+}
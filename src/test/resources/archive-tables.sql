@@ -0,0 +1,32 @@
+-- the archive tables of V5__soft_delete_archive.sql, the hot tables come from ddl-auto in tests. Every test
+-- context runs this against the same in-memory database, so it must not fail when the tables are there
+CREATE TABLE IF NOT EXISTS user_archive (
+    user_id      BIGINT       NOT NULL,
+    address      VARCHAR(255),
+    is_deleted   BOOLEAN,
+    email        VARCHAR(255) NOT NULL,
+    enum_role    VARCHAR(255),
+    user_name    VARCHAR(255) NOT NULL,
+    password     VARCHAR(255),
+    phone_number VARCHAR(255),
+    deleted_at   TIMESTAMP(6),
+    archived_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS project_archive (
+    project_id          BIGINT       NOT NULL,
+    is_deleted          BOOLEAN,
+    last_updated        TIMESTAMP(6) NOT NULL,
+    project_description VARCHAR(255),
+    project_name        VARCHAR(255) NOT NULL,
+    deleted_at          TIMESTAMP(6),
+    archived_at         TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (project_id)
+);
+
+CREATE TABLE IF NOT EXISTS project_user_archive (
+    project_id  BIGINT       NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL
+);